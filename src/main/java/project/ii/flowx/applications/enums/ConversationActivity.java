@@ -0,0 +1,11 @@
+package project.ii.flowx.applications.enums;
+
+/**
+ * Ephemeral member activity shown in a conversation, never persisted
+ */
+public enum ConversationActivity {
+    TYPING,
+    STOPPED_TYPING,
+    VIEWING,
+    LEFT     // stopped viewing the conversation
+}
@@ -0,0 +1,9 @@
+package project.ii.flowx.applications.enums;
+
+/**
+ * Direction of a keyset page relative to its cursor
+ */
+public enum CursorDirection {
+    BEFORE,  // older items, walking back from the latest
+    AFTER    // newer items, walking forward from the cursor
+}
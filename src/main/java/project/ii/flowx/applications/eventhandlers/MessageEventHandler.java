@@ -0,0 +1,48 @@
+package project.ii.flowx.applications.eventhandlers;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import project.ii.flowx.applications.events.MessageEvent;
+
+/**
+ * Broadcasts message changes to conversation topics once the change is committed,
+ * so clients never see a message whose transaction rolled back.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MessageEventHandler {
+    private static final String CONVERSATION_TOPIC = "/topic/conversation/";
+
+    SimpMessagingTemplate messagingTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleMessageCreated(MessageEvent.MessageCreatedEvent event) {
+        send(CONVERSATION_TOPIC + event.getConversationId(), event.getMessage());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleMessageUpdated(MessageEvent.MessageUpdatedEvent event) {
+        send(CONVERSATION_TOPIC + event.getConversationId() + "/update", event.getMessage());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleMessageDeleted(MessageEvent.MessageDeletedEvent event) {
+        send(CONVERSATION_TOPIC + event.getConversationId() + "/delete", event.getMessageId());
+    }
+
+    private void send(String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSend(destination, payload);
+        } catch (Exception e) {
+            log.error("Failed to broadcast message event to {}: {}", destination, e.getMessage(), e);
+        }
+    }
+}
@@ -12,12 +12,19 @@ import project.ii.flowx.applications.events.PostEvent;
 import project.ii.flowx.module.notify.NotificationService;
 import project.ii.flowx.applications.helper.EntityLookupService;
 import project.ii.flowx.module.notify.dto.NotificationCreateRequest;
+import project.ii.flowx.module.notify.dto.NotificationTarget;
+import project.ii.flowx.applications.enums.Visibility;
+import project.ii.flowx.module.manage.ProjectMemberRepository;
 import project.ii.flowx.module.content.entity.Post;
 import project.ii.flowx.module.content.entity.Comment;
 import project.ii.flowx.module.user.entity.User;
 import project.ii.flowx.module.content.repository.PostRepository;
 import project.ii.flowx.module.content.repository.CommentRepository;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
 @Component
 @EnableAsync
 @Slf4j
@@ -28,6 +35,7 @@ public class PostEventHandler {
     EntityLookupService entityLookupService;
     PostRepository postRepository;
     CommentRepository commentRepository;
+    ProjectMemberRepository projectMemberRepository;
 
     @EventListener
     @Async
@@ -35,11 +43,27 @@ public class PostEventHandler {
         log.info("Post created: {}", event);
         
         try {
-            // Create notification for followers or project members (if applicable)
-            // This is a placeholder - you might want to implement follower/member logic
-            // For now, we'll just log the event
-            log.info("Post {} created by user {} with title: {}", 
-                event.postId(), event.authorId(), event.title());
+            // Notify the project members about a project post, in one batch
+            if (!Visibility.PROJECT.name().equals(event.visibility()) || event.targetId() == null) return;
+
+            Set<UUID> recipients = new HashSet<>(projectMemberRepository.findUserIdsByProjectId(event.targetId()));
+            recipients.remove(event.authorId());
+            if (recipients.isEmpty()) return;
+
+            User author = entityLookupService.getUserById(event.authorId());
+            NotificationCreateRequest notification = NotificationCreateRequest.builder()
+                .title("New Post in Your Project")
+                .content(author.getFullName() + " posted: \"" + 
+                    (event.title() != null && event.title().length() > 100 ? 
+                        event.title().substring(0, 100) + "..." : 
+                        event.title()) + "\"")
+                .entityType("POST")
+                .targetId(event.postId())
+                .target(NotificationTarget.forPost(event.postId(), event.title(), null))
+                .build();
+
+            notificationService.createNotifications(notification, recipients);
+            log.info("Notification sent to {} project members for post {}", recipients.size(), event.postId());
         } catch (Exception e) {
             log.error("Error handling post created event: {}", e.getMessage(), e);
         }
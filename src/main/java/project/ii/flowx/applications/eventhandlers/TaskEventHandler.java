@@ -18,9 +18,12 @@ import project.ii.flowx.module.notify.dto.NotificationTarget;
 import project.ii.flowx.module.manage.entity.Task;
 import project.ii.flowx.module.user.entity.User;
 import project.ii.flowx.module.manage.TaskRepository;
+import project.ii.flowx.module.manage.ProjectMemberRepository;
 import project.ii.flowx.applications.enums.Visibility;
 
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
 @EnableAsync
@@ -31,6 +34,7 @@ public class TaskEventHandler {
     NotificationService notificationService;
     EntityLookupService entityLookupService;
     TaskRepository taskRepository;
+    ProjectMemberRepository projectMemberRepository;
 
     @EventListener
     @Async
@@ -43,24 +47,20 @@ public class TaskEventHandler {
             
             User assigner = entityLookupService.getUserById(event.userId());
             
-            // Notify relevant users about new task creation
-            List<User> recipients = getTaskNotificationRecipients(task);
-            
-            for (User recipient : recipients) {
-                if (!recipient.getId().equals(event.userId())) { // Don't notify the creator
-                    NotificationCreateRequest notificationRequest = NotificationCreateRequest.builder()
-                            .userId(recipient.getId())
-                            .title("Task mới được tạo")
-                            .content(String.format("%s đã tạo task mới: \"%s\"", 
-                                    assigner.getFullName(), 
-                                    truncateText(task.getTitle())))
-                            .entityType("TASK")
-                            .targetId(event.taskId())
-                            .build();
-                    
-                    notificationService.createNotification(notificationRequest);
-                }
-            }
+            // Notify relevant users about new task creation, except the creator
+            Set<UUID> recipients = getTaskNotificationRecipients(task);
+            recipients.remove(event.userId());
+            
+            NotificationCreateRequest notificationRequest = NotificationCreateRequest.builder()
+                    .title("Task mới được tạo")
+                    .content(String.format("%s đã tạo task mới: \"%s\"", 
+                            assigner.getFullName(), 
+                            truncateText(task.getTitle())))
+                    .entityType("TASK")
+                    .targetId(event.taskId())
+                    .build();
+            
+            notificationService.createNotifications(notificationRequest, recipients);
         } catch (Exception e) {
             log.error("Error handling task created event: {}", e.getMessage(), e);
         }
@@ -133,7 +133,7 @@ public class TaskEventHandler {
             );
             
             // Notify assigner about task completion
-            if (task.getAssigner() != null && !task.getAssignerId().equals(event.userId())) {
+            if (task.getAssignerId() != null && !task.getAssignerId().equals(event.userId())) {
                 NotificationCreateRequest notificationRequest = NotificationCreateRequest.builder()
                         .userId(task.getAssignerId())
                         .title("Task hoàn thành")
@@ -148,25 +148,22 @@ public class TaskEventHandler {
                 notificationService.createNotification(notificationRequest);
             }
             
-            // Notify team members about task completion
-            List<User> teamMembers = getTaskNotificationRecipients(task);
-            for (User member : teamMembers) {
-                if (!member.getId().equals(event.userId()) && 
-                    (task.getAssigner() == null || !member.getId().equals(task.getAssignerId()))) {
-                    NotificationCreateRequest teamNotification = NotificationCreateRequest.builder()
-                            .userId(member.getId())
-                            .title("Task hoàn thành trong team")
-                            .content(String.format("%s đã hoàn thành task \"%s\"", 
-                                    completer.getFullName(),
-                                    truncateText(task.getTitle())))
-                            .entityType("TASK")
-                            .targetId(event.taskId())
-                            .target(target)
-                            .build();
-                    
-                    notificationService.createNotification(teamNotification);
-                }
-            }
+            // Notify team members about task completion in one batch, except the completer and the assigner
+            Set<UUID> teamMembers = getTaskNotificationRecipients(task);
+            teamMembers.remove(event.userId());
+            if (task.getAssignerId() != null) teamMembers.remove(task.getAssignerId());
+            
+            NotificationCreateRequest teamNotification = NotificationCreateRequest.builder()
+                    .title("Task hoàn thành trong team")
+                    .content(String.format("%s đã hoàn thành task \"%s\"", 
+                            completer.getFullName(),
+                            truncateText(task.getTitle())))
+                    .entityType("TASK")
+                    .targetId(event.taskId())
+                    .target(target)
+                    .build();
+            
+            notificationService.createNotifications(teamNotification, teamMembers);
             
         } catch (Exception e) {
             log.error("Error handling task completed event: {}", e.getMessage(), e);
@@ -234,13 +231,13 @@ public class TaskEventHandler {
         }
     }
 
-    private List<User> getTaskNotificationRecipients(Task task) {
+    private Set<UUID> getTaskNotificationRecipients(Task task) {
         // Get notification recipients based on task target type
         if (task.getTargetType() == Visibility.PROJECT) {
-            return List.of();
+            return new HashSet<>(projectMemberRepository.findUserIdsByProjectId(task.getTargetId()));
         } else {
-            // For GLOBAL tasks, return empty list or implement specific logic
-            return List.of();
+            // For GLOBAL tasks, return empty set or implement specific logic
+            return new HashSet<>();
         }
     }
     
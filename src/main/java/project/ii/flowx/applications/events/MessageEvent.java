@@ -1,5 +1,7 @@
 package project.ii.flowx.applications.events;
 
+import project.ii.flowx.module.message.dto.message.MessageResponse;
+
 import java.util.UUID;
 
 /**
@@ -8,62 +10,60 @@ import java.util.UUID;
 public class MessageEvent {
 
     /**
-     * Event fired when a new message is created
+     * Event fired when a new message is created, carrying the response sent to clients
      */
     public static class MessageCreatedEvent {
-        private final UUID messageId;
-        private final UUID senderId;
-        private final UUID conversationId;
-        private final String content;
+        private final MessageResponse message;
 
-        public MessageCreatedEvent(UUID messageId, UUID senderId, UUID conversationId, String content) {
-            this.messageId = messageId;
-            this.senderId = senderId;
-            this.conversationId = conversationId;
-            this.content = content;
+        public MessageCreatedEvent(MessageResponse message) {
+            this.message = message;
+        }
+
+        public MessageResponse getMessage() {
+            return message;
         }
 
         public UUID getMessageId() {
-            return messageId;
+            return message.getId();
         }
 
         public UUID getSenderId() {
-            return senderId;
+            return message.getSenderId();
         }
 
         public UUID getConversationId() {
-            return conversationId;
+            return message.getConversationId();
         }
 
         public String getContent() {
-            return content;
+            return message.getContent();
         }
     }
 
     /**
-     * Event fired when a message is updated
+     * Event fired when a message is updated, carrying the response sent to clients
      */
     public static class MessageUpdatedEvent {
-        private final UUID messageId;
-        private final UUID senderId;
-        private final UUID conversationId;
+        private final MessageResponse message;
 
-        public MessageUpdatedEvent(UUID messageId, UUID senderId, UUID conversationId) {
-            this.messageId = messageId;
-            this.senderId = senderId;
-            this.conversationId = conversationId;
+        public MessageUpdatedEvent(MessageResponse message) {
+            this.message = message;
+        }
+
+        public MessageResponse getMessage() {
+            return message;
         }
 
         public UUID getMessageId() {
-            return messageId;
+            return message.getId();
         }
 
         public UUID getSenderId() {
-            return senderId;
+            return message.getSenderId();
         }
 
         public UUID getConversationId() {
-            return conversationId;
+            return message.getConversationId();
         }
     }
 
@@ -93,4 +93,4 @@ public class MessageEvent {
             return conversationId;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package project.ii.flowx.applications.helper;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects such as cache invalidation and broadcasts until the surrounding transaction commits,
+ * so that nothing outside the database observes a change that may still roll back.
+ */
+public final class AfterCommit {
+    private AfterCommit() { }
+
+    /** Run the action once the current transaction commits, or right away when there is none */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
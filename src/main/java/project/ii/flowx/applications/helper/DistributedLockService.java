@@ -0,0 +1,52 @@
+package project.ii.flowx.applications.helper;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lease-based Redis lock for work that must run on a single node at a time, such as scheduled jobs.
+ * The lease expires on its own if the holder dies; release only succeeds for the current holder.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DistributedLockService {
+    private static final String LOCK_PREFIX = "lock:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScripts.load("redis/lock_release.lua");
+
+    StringRedisTemplate redisTemplate;
+
+    /**
+     * Try to take the named lock for the given lease
+     * @return an owner token to pass to {@link #unlock}, or null if the lock is held elsewhere
+     */
+    public String tryLock(String name, Duration lease) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + name, token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.error("Failed to acquire lock {}: {}", name, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    public void unlock(String name, String token) {
+        if (token == null) return;
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_PREFIX + name), token);
+        } catch (Exception e) {
+            log.error("Failed to release lock {}: {}", name, e.getMessage(), e);
+        }
+    }
+}
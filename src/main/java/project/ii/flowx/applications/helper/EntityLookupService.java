@@ -1,10 +1,21 @@
 package project.ii.flowx.applications.helper;
 
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.LockMode;
+import org.hibernate.NonUniqueObjectException;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import project.ii.flowx.module.auth.repository.RoleRepository;
 import project.ii.flowx.module.auth.repository.UserRoleRepository;
 import project.ii.flowx.module.file.FileRepository;
@@ -26,35 +37,130 @@ import project.ii.flowx.module.manage.entity.ProjectMember;
 import project.ii.flowx.module.user.entity.User;
 import project.ii.flowx.module.auth.entity.UserRole;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Shared entity lookups for security expressions, services and event handlers.
+ * Within an HTTP request every entity is loaded at most once: results are kept in a
+ * request-scoped identity map and re-attached to the current transaction when reused.
+ */
 @Component
+@Slf4j
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class EntityLookupService {
+    private static final String IDENTITY_MAP_ATTRIBUTE = EntityLookupService.class.getName() + ".IDENTITY_MAP";
+
     PostRepository postRepository;
     CommentRepository commentRepository;
     TaskRepository taskRepository;
     UserRepository userRepository;
+    EntityManager entityManager;
+    MeterRegistry meterRegistry;
 
     public Post getPostById(UUID id) {
-        return postRepository.findById(id)
-                .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Post not found"));
+        return lookup(Post.class, id, postRepository, FlowXError.NOT_FOUND, "Post not found");
     }
 
     public Comment getCommentById(UUID id) {
-        return commentRepository.findById(id)
-                .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Comment not found"));
+        return lookup(Comment.class, id, commentRepository, FlowXError.NOT_FOUND, "Comment not found");
     }
 
     public Task getTaskById(UUID id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Task not found"));
+        return lookup(Task.class, id, taskRepository, FlowXError.NOT_FOUND, "Task not found");
     }
 
     public User getUserById(UUID id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new FlowXException(FlowXError.USER_NOT_FOUND, "User not found"));
+        return lookup(User.class, id, userRepository, FlowXError.USER_NOT_FOUND, "User not found");
+    }
+
+    /** Forget an entity for the rest of the request, e.g. after deleting it */
+    public void evict(Class<?> type, UUID id) {
+        IdentityMap identityMap = currentIdentityMap();
+        if (identityMap != null) identityMap.entities.remove(new EntityKey(type, id));
+    }
+
+    /** Forget every entity of a type for the rest of the request, e.g. after a delete cascaded to them */
+    public void evictAll(Class<?> type) {
+        IdentityMap identityMap = currentIdentityMap();
+        if (identityMap != null) identityMap.entities.keySet().removeIf(key -> key.type() == type);
+    }
+
+    private <T> T lookup(Class<T> type, UUID id, JpaRepository<T, UUID> repository, FlowXError error, String message) {
+        IdentityMap identityMap = currentIdentityMap();
+        if (identityMap == null) {
+            return repository.findById(id).orElseThrow(() -> new FlowXException(error, message));
+        }
+
+        EntityKey key = new EntityKey(type, id);
+        Object cached = identityMap.entities.get(key);
+        if (cached != null) {
+            identityMap.hits++;
+            T entity = attachToCurrentTransaction(type, id, type.cast(cached));
+            identityMap.entities.put(key, entity);
+            return entity;
+        }
+
+        identityMap.queries++;
+        T entity = repository.findById(id).orElseThrow(() -> new FlowXException(error, message));
+        identityMap.entities.put(key, entity);
+        return entity;
+    }
+
+    /**
+     * An instance loaded by a security expression is detached once the service transaction starts.
+     * Re-associating it avoids a second SELECT while keeping dirty checking and lazy loading working.
+     */
+    private <T> T attachToCurrentTransaction(Class<T> type, UUID id, T entity) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || entityManager.contains(entity)) {
+            return entity;
+        }
+        try {
+            entityManager.unwrap(Session.class).lock(entity, LockMode.NONE);
+            return entity;
+        } catch (NonUniqueObjectException e) {
+            // Already loaded by this transaction through another path, use that instance
+            return entityManager.find(type, id);
+        }
+    }
+
+    private IdentityMap currentIdentityMap() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+
+        IdentityMap identityMap = (IdentityMap) attributes.getAttribute(IDENTITY_MAP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (identityMap == null) {
+            IdentityMap created = new IdentityMap();
+            attributes.setAttribute(IDENTITY_MAP_ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+            attributes.registerDestructionCallback(IDENTITY_MAP_ATTRIBUTE, () -> record(created), RequestAttributes.SCOPE_REQUEST);
+            identityMap = created;
+        }
+        return identityMap;
+    }
+
+    private void record(IdentityMap identityMap) {
+        DistributionSummary.builder("flowx.entity_lookup.queries")
+                .description("Entity lookup queries issued per request")
+                .register(meterRegistry)
+                .record(identityMap.queries);
+        DistributionSummary.builder("flowx.entity_lookup.hits")
+                .description("Entity lookups served from the request identity map per request")
+                .register(meterRegistry)
+                .record(identityMap.hits);
+        if (identityMap.queries + identityMap.hits > 0) {
+            log.debug("Entity lookups for request: {} queries, {} served from identity map", identityMap.queries, identityMap.hits);
+        }
+    }
+
+    private record EntityKey(Class<?> type, UUID id) { }
+
+    /** Not thread-safe, a request is served by a single thread */
+    private static class IdentityMap {
+        final Map<EntityKey, Object> entities = new HashMap<>();
+        int queries;
+        int hits;
     }
 }
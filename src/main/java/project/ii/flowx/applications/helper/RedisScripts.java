@@ -0,0 +1,30 @@
+package project.ii.flowx.applications.helper;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/** Loads the Lua scripts under classpath:redis/ */
+public final class RedisScripts {
+    private RedisScripts() { }
+
+    /** A script returning an integer reply */
+    public static RedisScript<Long> load(String location) {
+        return load(location, Long.class);
+    }
+
+    /** A script returning an array reply */
+    @SuppressWarnings("unchecked")
+    public static RedisScript<List<Object>> loadList(String location) {
+        return (RedisScript<List<Object>>) (RedisScript<?>) load(location, List.class);
+    }
+
+    public static <T> RedisScript<T> load(String location, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(resultType);
+        return script;
+    }
+}
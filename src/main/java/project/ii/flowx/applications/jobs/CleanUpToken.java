@@ -1,4 +1,125 @@
 package project.ii.flowx.applications.jobs;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project.ii.flowx.applications.helper.DistributedLockService;
+import project.ii.flowx.module.auth.service.PasswordService;
+import project.ii.flowx.module.auth.service.RefreshTokenSessionService;
+import project.ii.flowx.module.auth.service.RefreshTokenSessionService.SessionSweepResult;
+import project.ii.flowx.security.TokenRevocationService;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * Sweeps expired token state in bounded batches: dangling ids in Redis user session sets,
+ * expired access token revocations and expired password reset tokens.
+ * Each run holds a cluster-wide lock and stops once its time budget is spent;
+ * the Redis scan cursor is persisted, so the next run picks up where this one stopped.
+ */
+@Component
+@Slf4j
 public class CleanUpToken {
+    private static final String LOCK_NAME = "token_sweeper";
+
+    private final RefreshTokenSessionService sessionService;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordService passwordService;
+    private final DistributedLockService lockService;
+
+    private final Counter reclaimedSessionEntries;
+    private final Counter reclaimedSessionKeys;
+    private final Counter reclaimedRevocations;
+    private final Counter reclaimedResetTokens;
+    private final Timer runTimer;
+
+    @Value("${app.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.sweeper.time-budget-ms:5000}")
+    private long timeBudgetMillis;
+
+    public CleanUpToken(RefreshTokenSessionService sessionService,
+                        TokenRevocationService tokenRevocationService,
+                        PasswordService passwordService,
+                        DistributedLockService lockService,
+                        MeterRegistry meterRegistry) {
+        this.sessionService = sessionService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordService = passwordService;
+        this.lockService = lockService;
+        this.reclaimedSessionEntries = reclaimed(meterRegistry, "redis_session_entries");
+        this.reclaimedSessionKeys = reclaimed(meterRegistry, "redis_session_keys");
+        this.reclaimedRevocations = reclaimed(meterRegistry, "invalid_token_rows");
+        this.reclaimedResetTokens = reclaimed(meterRegistry, "password_reset_token_rows");
+        this.runTimer = Timer.builder("flowx.sweeper.run")
+                .description("Duration of token sweeper runs")
+                .register(meterRegistry);
+    }
+
+    // Run the sweep every 5 minutes by default
+    @Scheduled(fixedDelayString = "${app.sweeper.interval-ms:300000}", initialDelayString = "${app.sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        String lockToken = lockService.tryLock(LOCK_NAME, Duration.ofMillis(timeBudgetMillis * 2));
+        if (lockToken == null) {
+            log.debug("Token sweep skipped, another node holds the lock");
+            return;
+        }
+
+        try {
+            runTimer.record(() -> {
+                long deadline = System.nanoTime() + Duration.ofMillis(timeBudgetMillis).toNanos();
+                sweepSessions(deadline);
+                long revocations = sweepRows(deadline, () -> tokenRevocationService.pruneExpired(batchSize), reclaimedRevocations);
+                long resetTokens = sweepRows(deadline, () -> passwordService.purgeExpiredResetTokens(batchSize), reclaimedResetTokens);
+                log.debug("Token sweep removed {} revocations and {} password reset tokens", revocations, resetTokens);
+            });
+        } catch (Exception e) {
+            log.error("Error during token sweep: {}", e.getMessage());
+        } finally {
+            lockService.unlock(LOCK_NAME, lockToken);
+        }
+    }
+
+    // Every node keeps its own revocation filter, so the rebuild is not behind the lock
+    @Scheduled(fixedRate = 900000)
+    public void rebuildRevocationFilter() {
+        try {
+            tokenRevocationService.rebuildFilter();
+        } catch (Exception e) {
+            log.error("Error rebuilding token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    private void sweepSessions(long deadline) {
+        SessionSweepResult result;
+        do {
+            result = sessionService.cleanupExpiredSessions(batchSize);
+            reclaimedSessionEntries.increment(result.entriesRemoved());
+            reclaimedSessionKeys.increment(result.keysDeleted());
+        } while (!result.passCompleted() && System.nanoTime() < deadline);
+    }
+
+    private long sweepRows(long deadline, IntSupplier deleteBatch, Counter counter) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.getAsInt();
+            counter.increment(deleted);
+            total += deleted;
+        } while (deleted >= batchSize && System.nanoTime() < deadline);
+        return total;
+    }
+
+    private static Counter reclaimed(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("flowx.sweeper.reclaimed")
+                .description("Expired keys, entries and rows removed by the token sweeper")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,110 @@
+package project.ii.flowx.applications.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project.ii.flowx.applications.helper.DistributedLockService;
+import project.ii.flowx.module.notify.NotificationRetentionService;
+import project.ii.flowx.module.notify.NotificationRetentionService.DigestGroup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Notification retention pipeline: rolls old read notifications up into daily digests,
+ * archives rows past the retention window, then drops expired archive partitions.
+ * Runs on one node at a time and stops once its time budget is spent; the next run picks up where it stopped.
+ */
+@Component
+@Slf4j
+public class NotificationRetentionJob {
+    private static final String LOCK_NAME = "notification_retention";
+
+    private final NotificationRetentionService retentionService;
+    private final DistributedLockService lockService;
+    private final Counter digestedRows;
+    private final Counter archivedRows;
+    private final Counter droppedPartitions;
+
+    @Value("${app.notification.retention.digest-after-days:14}")
+    private int digestAfterDays;
+
+    @Value("${app.notification.retention.digest-min-group-size:5}")
+    private int digestMinGroupSize;
+
+    @Value("${app.notification.retention.archive-after-days:90}")
+    private int archiveAfterDays;
+
+    @Value("${app.notification.retention.drop-after-days:365}")
+    private int dropAfterDays;
+
+    @Value("${app.notification.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.notification.retention.time-budget-ms:30000}")
+    private long timeBudgetMillis;
+
+    public NotificationRetentionJob(NotificationRetentionService retentionService,
+                                    DistributedLockService lockService,
+                                    MeterRegistry meterRegistry) {
+        this.retentionService = retentionService;
+        this.lockService = lockService;
+        this.digestedRows = Counter.builder("flowx.notification.digested")
+                .description("Read notifications replaced by a daily digest")
+                .register(meterRegistry);
+        this.archivedRows = Counter.builder("flowx.notification.archived")
+                .description("Notifications moved to the archive")
+                .register(meterRegistry);
+        this.droppedPartitions = Counter.builder("flowx.notification.archive_partitions_dropped")
+                .description("Expired notification archive partitions dropped")
+                .register(meterRegistry);
+    }
+
+    // Every night at 3:30 by default
+    @Scheduled(cron = "${app.notification.retention.cron:0 30 3 * * *}")
+    public void run() {
+        String lockToken = lockService.tryLock(LOCK_NAME, Duration.ofMillis(timeBudgetMillis * 2));
+        if (lockToken == null) {
+            log.debug("Notification retention skipped, another node holds the lock");
+            return;
+        }
+
+        try {
+            long deadline = System.nanoTime() + Duration.ofMillis(timeBudgetMillis).toNanos();
+            LocalDateTime today = LocalDate.now().atStartOfDay();
+            LocalDateTime archiveBefore = today.minusDays(archiveAfterDays);
+
+            // Roll up first, so that digests rather than their originals stay in the hot table
+            List<DigestGroup> groups;
+            do {
+                groups = retentionService.findDigestGroups(archiveBefore, today.minusDays(digestAfterDays),
+                        digestMinGroupSize, batchSize);
+                for (DigestGroup group : groups) {
+                    digestedRows.increment(retentionService.rollUp(group));
+                    if (System.nanoTime() >= deadline) break;
+                }
+            } while (groups.size() == batchSize && System.nanoTime() < deadline);
+
+            int moved;
+            do {
+                moved = retentionService.archiveBatch(archiveBefore, batchSize);
+                archivedRows.increment(moved);
+            } while (moved == batchSize && System.nanoTime() < deadline);
+
+            if (System.nanoTime() < deadline) {
+                LocalDateTime dropBefore = today.minusDays(dropAfterDays);
+                droppedPartitions.increment(retentionService.dropExpiredPartitions(dropBefore));
+                retentionService.deleteOrphanMessages(dropBefore, batchSize);
+            }
+        } catch (Exception e) {
+            log.error("Error during notification retention: {}", e.getMessage());
+        } finally {
+            lockService.unlock(LOCK_NAME, lockToken);
+        }
+    }
+}
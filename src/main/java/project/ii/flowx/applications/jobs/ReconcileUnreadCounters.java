@@ -0,0 +1,67 @@
+package project.ii.flowx.applications.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project.ii.flowx.applications.helper.DistributedLockService;
+import project.ii.flowx.module.message.service.UnreadCounterService;
+import project.ii.flowx.module.message.service.UnreadCounterService.ReconcileResult;
+
+import java.time.Duration;
+
+/**
+ * Repairs materialized unread counters that drifted from the database, for example
+ * after a Redis write was lost or a message was deleted. Runs on one node at a time
+ * and stops once its time budget is spent; the next run continues the same pass.
+ */
+@Component
+@Slf4j
+public class ReconcileUnreadCounters {
+    private static final String LOCK_NAME = "unread_reconciler";
+
+    private final UnreadCounterService unreadCounterService;
+    private final DistributedLockService lockService;
+    private final Counter repairedUsers;
+
+    @Value("${app.unread.reconcile.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.unread.reconcile.time-budget-ms:5000}")
+    private long timeBudgetMillis;
+
+    public ReconcileUnreadCounters(UnreadCounterService unreadCounterService,
+                                   DistributedLockService lockService,
+                                   MeterRegistry meterRegistry) {
+        this.unreadCounterService = unreadCounterService;
+        this.lockService = lockService;
+        this.repairedUsers = Counter.builder("flowx.unread.repaired")
+                .description("Users whose unread counters were repaired by reconciliation")
+                .register(meterRegistry);
+    }
+
+    // Reconcile every 10 minutes by default
+    @Scheduled(fixedDelayString = "${app.unread.reconcile.interval-ms:600000}", initialDelayString = "${app.unread.reconcile.initial-delay-ms:120000}")
+    public void reconcile() {
+        String lockToken = lockService.tryLock(LOCK_NAME, Duration.ofMillis(timeBudgetMillis * 2));
+        if (lockToken == null) {
+            log.debug("Unread counter reconciliation skipped, another node holds the lock");
+            return;
+        }
+
+        try {
+            long deadline = System.nanoTime() + Duration.ofMillis(timeBudgetMillis).toNanos();
+            ReconcileResult result;
+            do {
+                result = unreadCounterService.reconcile(batchSize);
+                repairedUsers.increment(result.usersRepaired());
+            } while (!result.passCompleted() && System.nanoTime() < deadline);
+        } catch (Exception e) {
+            log.error("Error during unread counter reconciliation: {}", e.getMessage());
+        } finally {
+            lockService.unlock(LOCK_NAME, lockToken);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package project.ii.flowx.applications.logging;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One access log line. The route is the matched handler pattern, not the raw URI,
+ * so entries aggregate per endpoint and do not leak ids from the path.
+ */
+public record AccessLogEntry(Instant timestamp, String method, String route, int status, long latencyMicros, UUID userId) {
+
+    public String format() {
+        return "method=" + method +
+                " route=" + route +
+                " status=" + status +
+                " latency_us=" + latencyMicros +
+                " user=" + (userId != null ? userId : "-") +
+                " ts=" + timestamp;
+    }
+}
@@ -0,0 +1,88 @@
+package project.ii.flowx.applications.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import project.ii.flowx.security.UserPrincipal;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records one structured access log entry per request and hands it to {@link AccessLogWriter}.
+ * Successful requests are sampled at the configured rate, server errors are always kept.
+ * Runs ahead of the security filter chain, so rejected requests are logged and the latency covers authentication.
+ * The security context is already cleared when the chain returns, so the user is read from a request attribute.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+    /** Request attribute holding the authenticated user's id, set by the authentication filter */
+    public static final String USER_ID_ATTRIBUTE = AccessLogFilter.class.getName() + ".userId";
+    private static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final AccessLogWriter accessLogWriter;
+
+    @Value("${app.access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.access-log.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int status = response.getStatus();
+            if (status >= 500 || sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                long latencyMicros = (System.nanoTime() - start) / 1_000;
+                accessLogWriter.submit(new AccessLogEntry(
+                        Instant.now(),
+                        request.getMethod(),
+                        routeOf(request),
+                        status,
+                        latencyMicros,
+                        currentUserId(request)
+                ));
+            }
+        }
+    }
+
+    private String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+
+    private UUID currentUserId(HttpServletRequest request) {
+        if (request.getAttribute(USER_ID_ATTRIBUTE) instanceof UUID userId) return userId;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,91 @@
+package project.ii.flowx.applications.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes access log entries from a bounded buffer on a single background thread.
+ * Request threads never block: when the buffer is full the entry is dropped and counted.
+ */
+@Component
+@Slf4j
+public class AccessLogWriter {
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS");
+    private static final int BATCH_SIZE = 256;
+
+    private final BlockingQueue<AccessLogEntry> buffer;
+    private final Counter droppedEntries;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(@Value("${app.access-log.buffer-size:8192}") int bufferSize, MeterRegistry meterRegistry) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.droppedEntries = Counter.builder("flowx.access_log.dropped")
+                .description("Access log entries dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("flowx.access_log.buffered", buffer, BlockingQueue::size)
+                .description("Access log entries waiting to be written")
+                .register(meterRegistry);
+        this.worker = new Thread(this::drainLoop, "access-log-writer");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+
+    /** Enqueue an entry without blocking, returns false if it was dropped */
+    public boolean submit(AccessLogEntry entry) {
+        if (buffer.offer(entry)) return true;
+        droppedEntries.increment();
+        return false;
+    }
+
+    private void drainLoop() {
+        List<AccessLogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AccessLogEntry first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Failed to write access log batch: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AccessLogEntry> batch) {
+        if (!ACCESS_LOG.isInfoEnabled()) return;
+        for (AccessLogEntry entry : batch) {
+            ACCESS_LOG.info(entry.format());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,99 @@
+package project.ii.flowx.applications.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+
+/**
+ * Fans broker messages out to every node when the in-memory simple broker is used on several instances.
+ * Broadcasts the application sends to /topic destinations are published on a Redis channel,
+ * and messages received from other nodes are delivered to local subscribers through the broker channel.
+ * User destinations are resolved to local sessions before they reach the broker, so they are not bridged.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "redis")
+@Slf4j
+public class RedisBrokerBridge implements ChannelInterceptor {
+    private static final String BROADCAST_CHANNEL = "stomp_broadcast";
+    private static final String TOPIC_PREFIX = "/topic/";
+    // Marks messages that came from another node so they are not published again
+    private static final String BRIDGED_HEADER = "flowxBridged";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MessageChannel brokerChannel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    record Envelope(String origin, String destination, String contentType, byte[] payload) { }
+
+    public RedisBrokerBridge(StringRedisTemplate redisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             ObjectMapper objectMapper,
+                             @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.brokerChannel = brokerChannel;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) -> deliver(message.getBody()),
+                new ChannelTopic(BROADCAST_CHANNEL));
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null || accessor.getMessageType() != SimpMessageType.MESSAGE) return message;
+        if (accessor.getHeader(BRIDGED_HEADER) != null) return message;
+
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) return message;
+        if (!(message.getPayload() instanceof byte[] payload)) return message;
+
+        try {
+            MimeType contentType = accessor.getContentType();
+            Envelope envelope = new Envelope(nodeId, destination,
+                    contentType != null ? contentType.toString() : null, payload);
+            redisTemplate.convertAndSend(BROADCAST_CHANNEL, objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            // Local subscribers still get the message, only the other nodes miss it
+            log.error("Failed to publish broker message for {}: {}", destination, e.getMessage(), e);
+        }
+        return message;
+    }
+
+    private void deliver(byte[] body) {
+        try {
+            Envelope envelope = objectMapper.readValue(body, Envelope.class);
+            if (nodeId.equals(envelope.origin())) return;
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(envelope.destination());
+            if (envelope.contentType() != null) accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+            accessor.setHeader(BRIDGED_HEADER, Boolean.TRUE);
+            brokerChannel.send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.error("Failed to deliver bridged broker message: {}", e.getMessage(), e);
+        }
+    }
+}
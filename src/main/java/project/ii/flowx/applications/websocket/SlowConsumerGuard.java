@@ -0,0 +1,170 @@
+package project.ii.flowx.applications.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how many frames each STOMP session has queued but not yet written to its socket,
+ * counting from the client outbound channel to the actual send.
+ * Once a session falls behind, frames to droppable destinations such as presence, typing indicators and notifications
+ * are discarded instead of buffered, so a slow client neither grows the heap nor gets terminated
+ * for traffic the client can refetch. Sessions the transport still closes for exceeding its limits are counted.
+ */
+@Component
+@Slf4j
+public class SlowConsumerGuard implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+    private static final String COUNTED_HEADER = "flowxCounted";
+
+    private final Map<String, AtomicInteger> pending = new ConcurrentHashMap<>();
+    // Session whose counted frame the current outbound thread is handling. Frames written while it is set,
+    // including ones flushed from that session's buffer, came from the outbound channel and were counted;
+    // frames the transport writes on its own, such as STOMP ERROR frames, were not.
+    private final ThreadLocal<String> writingFor = new ThreadLocal<>();
+
+    private final Counter droppedFrames;
+    private final Counter slowDisconnects;
+    private final DistributionSummary pendingDepth;
+
+    @Value("${app.websocket.slow-consumer.drop-threshold:64}")
+    private int dropThreshold;
+
+    @Value("${app.websocket.slow-consumer.droppable-destinations:/topic/user.presence,/topic/notifications/,/queue/online-users,/topic/conversation.activity/}")
+    private List<String> droppableDestinations;
+
+    public SlowConsumerGuard(MeterRegistry meterRegistry) {
+        this.droppedFrames = Counter.builder("flowx.websocket.frames.dropped")
+                .description("Frames discarded because the receiving session was too far behind")
+                .register(meterRegistry);
+        this.slowDisconnects = Counter.builder("flowx.websocket.slow_disconnects")
+                .description("Sessions closed by the transport for exceeding the send time or buffer limit")
+                .register(meterRegistry);
+        this.pendingDepth = DistributionSummary.builder("flowx.websocket.session.pending")
+                .description("Frames queued for a session when another one is added")
+                .register(meterRegistry);
+        Gauge.builder("flowx.websocket.session.pending.max", pending, SlowConsumerGuard::maxPending)
+                .description("Deepest per-session outbound queue")
+                .register(meterRegistry);
+        Gauge.builder("flowx.websocket.sessions", pending, Map::size)
+                .description("Open STOMP sessions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) return message;
+        AtomicInteger counter = pending.get(sessionId);
+        if (counter == null) return message;
+
+        int depth = counter.get();
+        if (depth >= dropThreshold && isDroppable(message)) {
+            droppedFrames.increment();
+            log.debug("Dropping frame for slow session {} with {} frames pending", sessionId, depth);
+            return null;
+        }
+        pendingDepth.record(counter.incrementAndGet());
+        // Tag the frame so that only counted frames are counted off again when written
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setHeader(COUNTED_HEADER, sessionId);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (message.getHeaders().get(COUNTED_HEADER) instanceof String sessionId) writingFor.set(sessionId);
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        writingFor.remove();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                AtomicInteger counter = new AtomicInteger();
+                pending.put(session.getId(), counter);
+                super.afterConnectionEstablished(new CountingSession(session, counter, writingFor));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                pending.remove(session.getId());
+                if (closeStatus.equalsCode(CloseStatus.SESSION_NOT_RELIABLE)) {
+                    slowDisconnects.increment();
+                    log.warn("WebSocket session {} closed for being too slow", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private boolean isDroppable(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) return false;
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) return false;
+        for (String prefix : droppableDestinations) {
+            if (destination.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static double maxPending(Map<String, AtomicInteger> pending) {
+        int max = 0;
+        for (AtomicInteger counter : pending.values()) {
+            max = Math.max(max, counter.get());
+        }
+        return max;
+    }
+
+    /** Counts counted frames off the per-session queue as they are written to the socket */
+    private static final class CountingSession extends WebSocketSessionDecorator {
+        private final AtomicInteger counter;
+        private final ThreadLocal<String> writingFor;
+
+        CountingSession(WebSocketSession session, AtomicInteger counter, ThreadLocal<String> writingFor) {
+            super(session);
+            this.counter = counter;
+            this.writingFor = writingFor;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            boolean counted = getId().equals(writingFor.get());
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (counted) counter.getAndUpdate(value -> value > 0 ? value - 1 : 0);
+            }
+        }
+    }
+}
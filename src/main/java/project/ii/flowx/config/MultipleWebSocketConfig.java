@@ -1,29 +1,110 @@
 package project.ii.flowx.config;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.TaskExecutorRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import project.ii.flowx.applications.websocket.RedisBrokerBridge;
+import project.ii.flowx.applications.websocket.SlowConsumerGuard;
 import project.ii.flowx.security.WebSocketAuthInterceptorImpl;
 
 /**
  * Configuration class for WebSocket message broker.
  * This class sets up the message broker and registers STOMP endpoints for WebSocket communication.
+ * The broker mode decides how broadcasts reach clients connected to other instances:
+ * "simple" keeps everything in this JVM, "redis" bridges the simple broker over Redis pub/sub,
+ * and "relay" forwards to an external STOMP broker such as RabbitMQ or ActiveMQ.
  */
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
+@Slf4j
 public class MultipleWebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptorImpl webSocketAuthInterceptor;
+    private final ObjectProvider<RedisBrokerBridge> redisBrokerBridge;
+    private final SlowConsumerGuard slowConsumerGuard;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay-login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.broker.relay-passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.broker.relay-virtual-host:}")
+    private String relayVirtualHost;
+
+    // A session whose pending frames exceed the buffer size or stay unsent past the time limit is closed
+    @Value("${app.websocket.transport.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${app.websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    // Thread pool sizes of 0 keep Spring's defaults (2 x cores, unbounded growth and queue)
+    @Value("${app.websocket.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        switch (brokerMode.toLowerCase()) {
+            case "relay" -> {
+                var relay = config.enableStompBrokerRelay("/topic", "/queue")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode)
+                        // Let every instance resolve /user destinations for sessions held by the others
+                        .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                        .setUserRegistryBroadcast("/topic/simp-user-registry");
+                if (!relayVirtualHost.isBlank()) relay.setVirtualHost(relayVirtualHost);
+            }
+            case "redis" -> {
+                config.enableSimpleBroker("/topic", "/queue");
+                config.configureBrokerChannel().interceptors(redisBrokerBridge.getObject());
+            }
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            default -> throw new IllegalStateException("Unknown app.websocket.broker.mode: " + brokerMode);
+        }
         config.setApplicationDestinationPrefixes("/app");
+        log.info("WebSocket broker mode: {}", brokerMode);
     }
 
     @Override
@@ -38,8 +119,31 @@ public class MultipleWebSocketConfig implements WebSocketMessageBrokerConfigurer
                 .withSockJS();
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(slowConsumerGuard);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(webSocketAuthInterceptor);
+        configurePool(registration, inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(slowConsumerGuard);
+        configurePool(registration, outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+    }
+
+    private static void configurePool(ChannelRegistration registration, int corePoolSize, int maxPoolSize, int queueCapacity) {
+        if (corePoolSize <= 0 && maxPoolSize <= 0 && queueCapacity <= 0) return;
+        TaskExecutorRegistration executor = registration.taskExecutor();
+        if (corePoolSize > 0) executor.corePoolSize(corePoolSize);
+        if (maxPoolSize > 0) executor.maxPoolSize(maxPoolSize);
+        if (queueCapacity > 0) executor.queueCapacity(queueCapacity);
     }
 }
@@ -1,6 +1,8 @@
 package project.ii.flowx.config;
 
 import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +21,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import project.ii.flowx.security.AccessDeniedHandlerImpl;
 import project.ii.flowx.security.AuthenticationEntryPointImpl;
+import project.ii.flowx.security.BoundedPasswordEncoder;
 import project.ii.flowx.security.JwtAuthenticationFilter;
 import project.ii.flowx.security.JwtAuthenticationEntryPoint;
 import project.ii.flowx.security.JwtAccessDeniedHandler;
@@ -77,8 +80,14 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${app.password.target-hash-ms:0}") long targetHashMillis,
+                                           @Value("${app.password.hashing-threads:2}") int hashingThreads,
+                                           @Value("${app.password.queue-capacity:32}") int queueCapacity,
+                                           @Value("${app.password.retry-after-seconds:2}") long retryAfterSeconds) {
+        BCryptPasswordEncoder bcrypt = BoundedPasswordEncoder.tunedBCrypt(bcryptStrength, targetHashMillis);
+        return new BoundedPasswordEncoder(bcrypt, hashingThreads, queueCapacity, retryAfterSeconds, meterRegistry);
     }
 
     @Bean
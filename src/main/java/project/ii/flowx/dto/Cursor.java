@@ -0,0 +1,36 @@
+package project.ii.flowx.dto;
+
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position (timestamp, id) handed to clients as an opaque token.
+ * The id breaks ties between rows sharing the same timestamp.
+ */
+public record Cursor(LocalDateTime timestamp, UUID id) {
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decode a client supplied cursor, null or blank means "no cursor" */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) throw new IllegalArgumentException("Missing separator");
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new FlowXException(FlowXError.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -25,6 +25,8 @@ public enum FlowXError {
     CONCURRENT_OPERATION( 409, "Concurrent operation in progress", HttpStatusCode.valueOf(409)),
     CONFLICT( 409, "Conflict", HttpStatusCode.valueOf(409)),
 
+    TOO_MANY_REQUESTS( 429, "Too many requests", HttpStatusCode.valueOf(429)),
+
     INTERNAL_SERVER_ERROR( 500, "Internal server error", HttpStatusCode.valueOf(500)),
     INVALID_INPUT( 400, "Invalid input", HttpStatusCode.valueOf(400)),;
 
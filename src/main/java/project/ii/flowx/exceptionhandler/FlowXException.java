@@ -15,4 +15,6 @@ public class FlowXException extends RuntimeException {
 
     private FlowXError flowXError;
     private String message;
+    // Seconds a client should wait before retrying, sent as Retry-After when set
+    private Long retryAfterSeconds;
 }
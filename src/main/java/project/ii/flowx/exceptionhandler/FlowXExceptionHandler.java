@@ -1,6 +1,7 @@
 package project.ii.flowx.exceptionhandler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -35,6 +36,11 @@ public class FlowXExceptionHandler {
         Response.setCode(flowXError.getCode());
         Response.setMessage(exception.getMessage());
 
+        if (exception.getRetryAfterSeconds() != null) {
+            return ResponseEntity.status(flowXError.getStatusCode())
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                    .body(Response);
+        }
         return ResponseEntity.status(flowXError.getStatusCode()).body(Response);
     }
 
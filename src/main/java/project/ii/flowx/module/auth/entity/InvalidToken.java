@@ -12,15 +12,19 @@ import java.util.UUID;
 @Getter
 @Setter
 @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+@Table(name = "invalid_token", indexes = {
+        @Index(name = "uk_invalid_token_jti", columnList = "jti", unique = true),
+        @Index(name = "idx_invalid_token_expired_at", columnList = "expired_at")
+})
 public class InvalidToken {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", nullable = false, updatable = false, columnDefinition = "UUID")
     UUID id;
 
-    @Column(length = 2048)
-    String token;
+    @Column(name = "jti", nullable = false, length = 64)
+    String jti;
 
-    @Column(name = "expired_at")
+    @Column(name = "expired_at", nullable = false)
     LocalDateTime expiredAt;
 }
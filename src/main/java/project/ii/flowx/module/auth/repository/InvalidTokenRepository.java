@@ -1,12 +1,33 @@
 package project.ii.flowx.module.auth.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import project.ii.flowx.module.auth.entity.InvalidToken;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface InvalidTokenRepository extends JpaRepository<InvalidToken, UUID> {
-    boolean existsByToken(String token);
+    boolean existsByJti(String jti);
+
+    /**
+     * Token ids of revocations that have not expired yet
+     */
+    @Query("SELECT t.jti FROM InvalidToken t WHERE t.expiredAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete at most {@code limit} revocations whose token has already expired and return count
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM invalid_token WHERE id IN " +
+            "(SELECT id FROM invalid_token WHERE expired_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import project.ii.flowx.module.auth.entity.PasswordResetToken;
 
 import java.time.LocalDateTime;
@@ -36,4 +37,13 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     @Modifying
     @Query("DELETE FROM PasswordResetToken prt WHERE prt.expiryDate < :now")
     int deleteExpiredTokens(@Param("now") LocalDateTime now);
-} 
\ No newline at end of file
+
+    /**
+     * Delete at most {@code limit} expired password reset tokens and return count
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM password_reset_tokens WHERE id IN " +
+            "(SELECT id FROM password_reset_tokens WHERE expiry_date < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredTokensBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
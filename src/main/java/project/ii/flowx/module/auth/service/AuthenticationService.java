@@ -8,7 +8,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -16,31 +15,23 @@ import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
-import project.ii.flowx.module.auth.entity.InvalidToken;
 import project.ii.flowx.exceptionhandler.FlowXError;
 import project.ii.flowx.exceptionhandler.FlowXException;
 import project.ii.flowx.module.auth.dto.auth.AuthenticationRequest;
 import project.ii.flowx.module.auth.dto.auth.AuthenticationResponse;
 import project.ii.flowx.module.auth.dto.auth.LogoutRequest;
 import project.ii.flowx.module.auth.dto.auth.RefreshTokenResponse;
-import project.ii.flowx.module.auth.repository.InvalidTokenRepository;
 import project.ii.flowx.module.user.repository.UserRepository;
 import project.ii.flowx.security.FlowXJwtDecoder;
+import project.ii.flowx.security.JwtAuthenticationCache;
 import project.ii.flowx.security.JwtDecoderImpl;
+import project.ii.flowx.security.JwtTokenMinter;
+import project.ii.flowx.security.JwtTokenMinter.TokenPair;
+import project.ii.flowx.security.TokenRevocationService;
 import project.ii.flowx.security.UserDetailsServiceImpl;
 import project.ii.flowx.security.UserPrincipal;
 
-import java.util.Date;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.time.Instant;
-
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 
 @Service
 @Slf4j
@@ -48,15 +39,14 @@ import com.nimbusds.jwt.SignedJWT;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class AuthenticationService {
     final UserRepository userRepository;
-    final InvalidTokenRepository invalidTokenRepository;
+    final TokenRevocationService tokenRevocationService;
+    final JwtAuthenticationCache jwtAuthenticationCache;
     final AuthenticationManager authenticationManager;
     final UserDetailsServiceImpl userDetailsService;
     final JwtDecoderImpl jwtDecoder;
+    final JwtTokenMinter tokenMinter;
     final RefreshTokenSessionService sessionService;
 
-    @Value("${spring.jwt.secret}")
-    String jwtSecret;
-
     @Value("${spring.jwt.expiration}")
     long jwtExpiration;
 
@@ -81,16 +71,16 @@ public class AuthenticationService {
             );
 
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            String token = generateToken(userPrincipal, jwtExpiration);
-            String refreshToken = generateToken(userPrincipal, refreshExpiration);
+            TokenPair tokens = tokenMinter.mintPair(userPrincipal, jwtExpiration, refreshExpiration);
+            String token = tokens.accessToken().value();
+            String refreshToken = tokens.refreshToken().value();
 
             // Store refresh token session in Redis
             try {
-                Jwt refreshJwt = jwtDecoder.decode(refreshToken);
                 sessionService.storeRefreshTokenSession(
-                    refreshJwt.getId(),
+                    tokens.refreshToken().jti(),
                     userPrincipal.getId(),
-                    refreshJwt.getExpiresAt(),
+                    tokens.refreshToken().expiresAt(),
                     userAgent,
                     ipAddress
                 );
@@ -135,16 +125,16 @@ public class AuthenticationService {
             }
 
             UserPrincipal userPrincipal = (UserPrincipal) userDetails;
-            String token = generateToken(userPrincipal, jwtExpiration);
-            String refreshToken = generateToken(userPrincipal, refreshExpiration);
+            TokenPair tokens = tokenMinter.mintPair(userPrincipal, jwtExpiration, refreshExpiration);
+            String token = tokens.accessToken().value();
+            String refreshToken = tokens.refreshToken().value();
 
             // Store refresh token session in Redis
             try {
-                Jwt refreshJwt = jwtDecoder.decode(refreshToken);
                 sessionService.storeRefreshTokenSession(
-                    refreshJwt.getId(),
+                    tokens.refreshToken().jti(),
                     userPrincipal.getId(),
-                    refreshJwt.getExpiresAt(),
+                    tokens.refreshToken().expiresAt(),
                     userAgent,
                     ipAddress
                 );
@@ -171,11 +161,11 @@ public class AuthenticationService {
             String token = request.getToken();
             if (!StringUtils.hasText(token)) return;
             
-            // Keep existing access token invalidation for backwards compatibility
-            InvalidToken invalidToken = new InvalidToken();
-            invalidToken.setToken(token);
-            invalidTokenRepository.save(invalidToken);
-            
+            // Revoke the access token by its jti until it expires
+            Jwt jwt = jwtDecoder.decode(token);
+            tokenRevocationService.revoke(jwt.getId(), jwt.getExpiresAt());
+            jwtAuthenticationCache.evict(token);
+
         } catch (JwtException e) {
             // Token already expired or invalid
             log.debug("Token validation failed during logout: {}", e.getMessage());
@@ -234,41 +224,29 @@ public class AuthenticationService {
             String tokenId = jwt.getId(); // JTI claim
             String email = jwt.getSubject();
 
-            // Use Redis-based validation with distributed locking to prevent race conditions
-            if (!sessionService.validateAndInvalidateToken(tokenId)) {
-                log.warn("Refresh token is invalid or already used: {}", tokenId);
-                throw new FlowXException(FlowXError.INVALID_TOKEN, "Refresh token is invalid or already used");
-            }
-
             // Load user details
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
             UserPrincipal userPrincipal = (UserPrincipal) userDetails;
 
-            // Generate new tokens after invalidating the old one
-            String newAccessToken = generateToken(userPrincipal, jwtExpiration);
-            String newRefreshToken = generateToken(userPrincipal, refreshExpiration);
-            
-            // Store new refresh token session in Redis
-            try {
-                Jwt newRefreshJwt = jwtDecoder.decode(newRefreshToken);
-                sessionService.storeRefreshTokenSession(
-                    newRefreshJwt.getId(),
+            TokenPair tokens = tokenMinter.mintPair(userPrincipal, jwtExpiration, refreshExpiration);
+
+            // Consume the old session and store the new one atomically, a token can only be rotated once
+            if (!sessionService.rotateRefreshTokenSession(
+                    tokenId,
+                    tokens.refreshToken().jti(),
                     userPrincipal.getId(),
-                    newRefreshJwt.getExpiresAt(),
+                    tokens.refreshToken().expiresAt(),
                     userAgent,
-                    ipAddress
-                );
-                log.info("Stored new refresh token session for user: {}", userPrincipal.getId());
-            } catch (Exception e) {
-                log.error("Failed to store new refresh token session: {}", e.getMessage(), e);
-                // Continue with token refresh even if session storage fails
+                    ipAddress)) {
+                log.warn("Refresh token is invalid or already used: {}", tokenId);
+                throw new FlowXException(FlowXError.INVALID_TOKEN, "Refresh token is invalid or already used");
             }
             
             log.info("Successfully refreshed token for user: {}", email);
 
             return RefreshTokenResponse.builder()
-                    .token(newAccessToken)
-                    .refreshToken(newRefreshToken)
+                    .token(tokens.accessToken().value())
+                    .refreshToken(tokens.refreshToken().value())
                     .build();
 
         } catch (JwtException e) {
@@ -282,40 +260,4 @@ public class AuthenticationService {
             throw new FlowXException(FlowXError.INTERNAL_SERVER_ERROR, "Token refresh failed");
         }
     }
-
-    public String generateToken(UserPrincipal userPrincipal, long expiration) {
-        try {
-            Instant now = Instant.now();
-            Instant expiryTime = now.plusMillis(expiration);
-
-            String scope = userPrincipal.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .collect(Collectors.joining(" "));
-
-            // Create JWT claims
-            JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
-                    .subject(userPrincipal.getUsername())
-                    .issuer("FlowX") // Match the issuer in FlowXJwtDecoder
-                    .issueTime(Date.from(now))
-                    .expirationTime(Date.from(expiryTime))
-                    .jwtID(UUID.randomUUID().toString())
-                    .claim("userId", userPrincipal.getId())
-                    .claim("scope", scope)
-                    .build();
-
-            // Create JWT header
-            JWSHeader header = new JWSHeader(JWSAlgorithm.HS256);
-
-            // Create signed JWT
-            SignedJWT signedJWT = new SignedJWT(header, claimsSet);
-
-            // Sign the JWT with HMAC256
-            MACSigner signer = new MACSigner(jwtSecret.getBytes());
-            signedJWT.sign(signer);
-
-            return signedJWT.serialize();
-        } catch (JOSEException e) {
-            throw new RuntimeException("Failed to generate JWT token", e);
-        }
-    }
 }
@@ -10,14 +10,15 @@ import org.springframework.stereotype.Component;
 import project.ii.flowx.applications.helper.EntityLookupService;
 import project.ii.flowx.exceptionhandler.FlowXError;
 import project.ii.flowx.exceptionhandler.FlowXException;
-import project.ii.flowx.module.auth.dto.userrole.UserRoleResponse;
 import project.ii.flowx.module.manage.entity.Task;
 import project.ii.flowx.module.manage.service.TaskService;
+import project.ii.flowx.module.message.repository.MemberRepository;
+import project.ii.flowx.module.message.repository.MessageRepository;
 import project.ii.flowx.security.UserPrincipal;
+import project.ii.flowx.applications.enums.RoleDefault;
 import project.ii.flowx.applications.enums.Visibility;
 import project.ii.flowx.applications.enums.RoleScope;
 
-import java.util.List;
 import java.util.UUID;
 
 @Component("authorize")
@@ -25,31 +26,25 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthorizationService {
-    UserRoleService userRoleService;
+    private static final long MANAGER = PermissionIndex.bitOf(RoleDefault.MANAGER.name());
+    private static final long MEMBER = PermissionIndex.bitOf(RoleDefault.MEMBER.name());
+
+    PermissionIndexService permissionIndexService;
     TaskService taskService;
     EntityLookupService entityLookupService;
+    MemberRepository memberRepository;
+    MessageRepository messageRepository;
 
-    public List<UserRoleResponse> getUserRoles(UUID userId) {
-        log.info("Get roles for user {} in authorization service", userId);
-        return userRoleService.getRolesForUser(userId);
+    public PermissionIndex getPermissionIndex(UUID userId) {
+        return permissionIndexService.getIndex(userId);
     }
 
     public boolean hasRole(String roleName, RoleScope roleScope, UUID scopeId) {
-        UUID userId = getUserId();
-        List<UserRoleResponse> userRoles = getUserRoles(userId);
-
-        return userRoles.stream()
-                .anyMatch(r -> r.getRole().getName().equals(roleName)
-                        && r.getScope() == roleScope
-                        && (roleScope == RoleScope.GLOBAL ? scopeId == null || r.getScopeId() == null : r.getScopeId().equals(scopeId)));
+        return getPermissionIndex(getUserId()).has(PermissionIndex.bitOf(roleName), roleScope, scopeId);
     }
 
     public boolean isGlobalManager() {
-        UUID userId = getUserId();
-        List<UserRoleResponse> userRoles = getUserRoles(userId);
-        return userRoles.stream()
-                .anyMatch(r -> r.getRole().getName().equalsIgnoreCase("MANAGER")
-                        && r.getScope() == RoleScope.GLOBAL);
+        return getPermissionIndex(getUserId()).isGlobalManager();
     }
 
     public boolean hasProjectRole(String roleName, UUID projectId) {
@@ -69,11 +64,36 @@ public class AuthorizationService {
             return userId.equals(targetId);
         }
         if (targetType == Visibility.PROJECT)
-            return hasProjectRole("MEMBER", targetId) || hasProjectRole("MANAGER", targetId);
+            return targetId != null && getPermissionIndex(getUserId()).has(MEMBER | MANAGER, RoleScope.PROJECT, targetId);
 
         return false;
     }
 
+    /**
+     * Check if current user is a member of the conversation, with a single exists query
+     */
+    public boolean canViewConversation(UUID conversationId) {
+        return conversationId != null && memberRepository.existsByConversationIdAndUserId(conversationId, getUserId());
+    }
+
+    public boolean canSendMessageToConversation(UUID conversationId) {
+        return canViewConversation(conversationId);
+    }
+
+    /**
+     * Check if current user is a member of the message's conversation
+     */
+    public boolean canViewMessage(UUID messageId) {
+        return messageId != null && messageRepository.isVisibleTo(messageId, getUserId());
+    }
+
+    /**
+     * Check if current user sent the message
+     */
+    public boolean isMessageOwner(UUID messageId) {
+        return messageId != null && messageRepository.existsByIdAndSenderId(messageId, getUserId());
+    }
+
     /**
      * Check if current user is the assignee of the task
      */
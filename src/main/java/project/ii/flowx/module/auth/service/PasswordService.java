@@ -127,4 +127,9 @@ public class PasswordService {
         }
         return userPrincipal.getId();
     }
-} 
\ No newline at end of file
+
+    /** Delete up to {@code batchSize} expired password reset tokens */
+    public int purgeExpiredResetTokens(int batchSize) {
+        return passwordResetTokenRepository.deleteExpiredTokensBatch(LocalDateTime.now(), batchSize);
+    }
+}
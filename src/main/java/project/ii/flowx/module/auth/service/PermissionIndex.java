@@ -0,0 +1,92 @@
+package project.ii.flowx.module.auth.service;
+
+import project.ii.flowx.applications.enums.RoleDefault;
+import project.ii.flowx.applications.enums.RoleScope;
+import project.ii.flowx.module.auth.entity.UserRole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable snapshot of a user's roles, indexed by (scope, scopeId) with one bit per role name.
+ * Checks are a map lookup plus a mask test, without scanning or allocating.
+ * Matching is the same as scanning the role list: role names are case-sensitive, and a global role
+ * held with a scope id only matches checks that pass no scope id.
+ */
+public final class PermissionIndex {
+    private static final Map<String, Long> ROLE_BITS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_BIT = new AtomicInteger();
+
+    static {
+        for (RoleDefault role : RoleDefault.values()) {
+            bitOf(role.name());
+        }
+    }
+
+    private final long globalRoles;
+    private final long unscopedGlobalRoles;
+    private final boolean globalManager;
+    private final Map<UUID, Long> projectRoles;
+    private final Map<UUID, Long> conversationRoles;
+
+    private PermissionIndex(long globalRoles, long unscopedGlobalRoles, boolean globalManager,
+                            Map<UUID, Long> projectRoles, Map<UUID, Long> conversationRoles) {
+        this.globalRoles = globalRoles;
+        this.unscopedGlobalRoles = unscopedGlobalRoles;
+        this.globalManager = globalManager;
+        this.projectRoles = projectRoles;
+        this.conversationRoles = conversationRoles;
+    }
+
+    public static PermissionIndex of(List<UserRole> userRoles) {
+        long global = 0L;
+        long unscopedGlobal = 0L;
+        boolean manager = false;
+        Map<UUID, Long> projects = new HashMap<>();
+        Map<UUID, Long> conversations = new HashMap<>();
+
+        for (UserRole userRole : userRoles) {
+            long bit = bitOf(userRole.getRole().getName());
+            if (userRole.getScope() == RoleScope.GLOBAL) {
+                global |= bit;
+                if (userRole.getScopeId() == null) unscopedGlobal |= bit;
+                manager |= RoleDefault.MANAGER.name().equalsIgnoreCase(userRole.getRole().getName());
+            } else if (userRole.getScope() == RoleScope.PROJECT && userRole.getScopeId() != null) {
+                projects.merge(userRole.getScopeId(), bit, (a, b) -> a | b);
+            } else if (userRole.getScope() == RoleScope.CONVERSATION && userRole.getScopeId() != null) {
+                conversations.merge(userRole.getScopeId(), bit, (a, b) -> a | b);
+            }
+        }
+        return new PermissionIndex(global, unscopedGlobal, manager, Map.copyOf(projects), Map.copyOf(conversations));
+    }
+
+    /**
+     * Bit assigned to a role name, compared case-sensitively.
+     * Bits are handed out on first sight; past 64 distinct names lookups return 0 and never match.
+     */
+    public static long bitOf(String roleName) {
+        if (roleName == null) return 0L;
+        return ROLE_BITS.computeIfAbsent(roleName, name -> {
+            int index = NEXT_BIT.getAndIncrement();
+            return index < Long.SIZE ? 1L << index : 0L;
+        });
+    }
+
+    public boolean has(long roleMask, RoleScope scope, UUID scopeId) {
+        if (roleMask == 0L || scope == null) return false;
+        return switch (scope) {
+            case GLOBAL -> ((scopeId == null ? globalRoles : unscopedGlobalRoles) & roleMask) != 0;
+            case PROJECT -> scopeId != null && (projectRoles.getOrDefault(scopeId, 0L) & roleMask) != 0;
+            case CONVERSATION -> scopeId != null && (conversationRoles.getOrDefault(scopeId, 0L) & roleMask) != 0;
+        };
+    }
+
+    /** Whether the user holds a global manager role, with the role name compared case-insensitively */
+    public boolean isGlobalManager() {
+        return globalManager;
+    }
+}
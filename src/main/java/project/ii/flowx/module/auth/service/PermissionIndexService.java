@@ -0,0 +1,83 @@
+package project.ii.flowx.module.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import project.ii.flowx.applications.helper.AfterCommit;
+import project.ii.flowx.module.auth.repository.UserRoleRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Node-local cache of {@link PermissionIndex} per user.
+ * Invalidations are applied after the surrounding transaction commits and broadcast to the other nodes.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PermissionIndexService {
+    private static final String INVALIDATION_CHANNEL = "permission_index_invalidation";
+    private static final String ALL_USERS = "*";
+
+    UserRoleRepository userRoleRepository;
+    StringRedisTemplate redisTemplate;
+    RedisMessageListenerContainer listenerContainer;
+
+    Cache<UUID, PermissionIndex> indexes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) ->
+                applyInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public PermissionIndex getIndex(UUID userId) {
+        return indexes.get(userId, id -> PermissionIndex.of(userRoleRepository.findByUserId(id)));
+    }
+
+    /** Drop the index of one user once the current transaction commits */
+    public void evict(UUID userId) {
+        AfterCommit.run(() -> publish(userId.toString()));
+    }
+
+    /** Drop every index once the current transaction commits */
+    public void evictAll() {
+        AfterCommit.run(() -> publish(ALL_USERS));
+    }
+
+    private void publish(String target) {
+        applyInvalidation(target);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, target);
+        } catch (Exception e) {
+            log.error("Failed to broadcast permission index invalidation for {}: {}", target, e.getMessage(), e);
+        }
+    }
+
+    private void applyInvalidation(String target) {
+        if (ALL_USERS.equals(target)) {
+            indexes.invalidateAll();
+            return;
+        }
+        try {
+            indexes.invalidate(UUID.fromString(target));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed permission index invalidation: {}", target);
+        }
+    }
+}
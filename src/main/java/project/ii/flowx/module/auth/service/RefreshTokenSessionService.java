@@ -5,7 +5,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import project.ii.flowx.applications.helper.RedisScripts;
 import project.ii.flowx.exceptionhandler.FlowXError;
 import project.ii.flowx.exceptionhandler.FlowXException;
 
@@ -17,7 +19,9 @@ import java.util.List;
 
 /**
  * Service for managing refresh token sessions using Redis.
- * Provides distributed locking and race condition protection for token refresh operations.
+ * Every write is a single server-side script, so rotation is atomic without a separate lock:
+ * a refresh token can be consumed exactly once, even under concurrent refresh attempts.
+ * A user's sessions are kept in a sorted set scored by issue time, so the oldest session is evicted first.
  */
 @Service
 @Slf4j
@@ -29,43 +33,42 @@ public class RefreshTokenSessionService {
     
     private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
     private static final String USER_SESSION_PREFIX = "user_session:";
-    private static final String TOKEN_LOCK_PREFIX = "token_lock:";
     private static final String SESSION_DATA_PREFIX = "session_data:";
+    private static final String SWEEP_CURSOR_KEY = "sweeper:user_session_cursor";
     
-    private static final int LOCK_TIMEOUT_SECONDS = 10;
     private static final int MAX_SESSIONS_PER_USER = 5;
+
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScripts.load("redis/refresh_session_store.lua");
+    private static final RedisScript<Long> ROTATE_SCRIPT = RedisScripts.load("redis/refresh_session_rotate.lua");
+    private static final RedisScript<Long> REVOKE_SCRIPT = RedisScripts.load("redis/refresh_session_revoke.lua");
+    private static final RedisScript<Long> REVOKE_ALL_SCRIPT = RedisScripts.load("redis/refresh_session_revoke_all.lua");
+    private static final RedisScript<List<Object>> SWEEP_SCRIPT = RedisScripts.loadList("redis/refresh_session_sweep.lua");
     
     /**
      * Store refresh token session metadata in Redis
      */
     public void storeRefreshTokenSession(String tokenId, UUID userId, Instant expiryTime, String userAgent, String ipAddress) {
         try {
-            String tokenKey = REFRESH_TOKEN_PREFIX + tokenId;
-            String userSessionKey = USER_SESSION_PREFIX + userId;
-            String sessionDataKey = SESSION_DATA_PREFIX + tokenId;
-            
             Duration ttl = Duration.between(Instant.now(), expiryTime);
             if (ttl.isNegative() || ttl.isZero()) {
                 log.warn("Attempted to store session with past or zero expiry time: {}", expiryTime);
                 return;
             }
-            
-            // Store token -> userId mapping
-            redisTemplate.opsForValue().set(tokenKey, userId.toString(), ttl);
-            
-            // Store session metadata
-            String sessionData = String.format("%s|%s|%d", userAgent != null ? userAgent : "unknown", 
-                                               ipAddress != null ? ipAddress : "unknown", 
-                                               System.currentTimeMillis());
-            redisTemplate.opsForValue().set(sessionDataKey, sessionData, ttl);
-            
-            // Enforce session limit before adding new session
-            enforceSessionLimit(userId);
-            
-            // Add to user's active sessions
-            redisTemplate.opsForSet().add(userSessionKey, tokenId);
-            redisTemplate.expire(userSessionKey, ttl);
-            
+
+            Long evicted = redisTemplate.execute(STORE_SCRIPT,
+                    List.of(REFRESH_TOKEN_PREFIX + tokenId, SESSION_DATA_PREFIX + tokenId, USER_SESSION_PREFIX + userId),
+                    tokenId,
+                    userId.toString(),
+                    String.valueOf(ttl.toMillis()),
+                    sessionData(userAgent, ipAddress),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(MAX_SESSIONS_PER_USER),
+                    REFRESH_TOKEN_PREFIX,
+                    SESSION_DATA_PREFIX);
+
+            if (evicted != null && evicted > 0) {
+                log.info("Removed {} old sessions for user: {} due to session limit", evicted, userId);
+            }
             log.info("Stored refresh token session for user: {} with token ID: {}", userId, tokenId);
             
         } catch (Exception e) {
@@ -73,57 +76,43 @@ public class RefreshTokenSessionService {
             throw new FlowXException(FlowXError.INTERNAL_SERVER_ERROR, "Failed to store session");
         }
     }
-    
+
     /**
-     * Validate and invalidate refresh token with distributed locking to prevent race conditions
+     * Consume a refresh token session and store the session of its replacement in one atomic round trip.
+     * Returns false if the old token is unknown, expired, already used or belongs to another user.
      */
-    public boolean validateAndInvalidateToken(String tokenId) {
-        String lockKey = TOKEN_LOCK_PREFIX + tokenId;
-        
+    public boolean rotateRefreshTokenSession(String oldTokenId, String newTokenId, UUID userId, Instant expiryTime,
+                                             String userAgent, String ipAddress) {
         try {
-            // Acquire distributed lock
-            Boolean lockAcquired = redisTemplate.opsForValue()
-                .setIfAbsent(lockKey, "locked", Duration.ofSeconds(LOCK_TIMEOUT_SECONDS));
-            
-            if (Boolean.FALSE.equals(lockAcquired)) {
-                log.warn("Token refresh already in progress for token: {}", tokenId);
-                throw new FlowXException(FlowXError.CONCURRENT_OPERATION, 
-                    "Token refresh already in progress. Please try again.");
+            Duration ttl = Duration.between(Instant.now(), expiryTime);
+            if (ttl.isNegative() || ttl.isZero()) {
+                log.warn("Attempted to rotate to a session with past or zero expiry time: {}", expiryTime);
+                return false;
             }
-            
-            try {
-                String tokenKey = REFRESH_TOKEN_PREFIX + tokenId;
-                
-                // Check if token exists and get user ID
-                String userId = redisTemplate.opsForValue().get(tokenKey);
-                if (userId == null) {
-                    log.warn("Refresh token not found or expired: {}", tokenId);
-                    return false; // Token không tồn tại hoặc đã expired
-                }
-                
-                // Immediately invalidate token to prevent reuse
-                redisTemplate.delete(tokenKey);
-                
-                // Remove from user's session set
-                String userSessionKey = USER_SESSION_PREFIX + userId;
-                redisTemplate.opsForSet().remove(userSessionKey, tokenId);
-                
-                // Remove session metadata
-                String sessionDataKey = SESSION_DATA_PREFIX + tokenId;
-                redisTemplate.delete(sessionDataKey);
-                
-                log.info("Successfully validated and invalidated token: {} for user: {}", tokenId, userId);
-                return true;
-                
-            } finally {
-                // Always release the lock
-                redisTemplate.delete(lockKey);
+
+            Long rotated = redisTemplate.execute(ROTATE_SCRIPT,
+                    List.of(REFRESH_TOKEN_PREFIX + oldTokenId, SESSION_DATA_PREFIX + oldTokenId,
+                            REFRESH_TOKEN_PREFIX + newTokenId, SESSION_DATA_PREFIX + newTokenId,
+                            USER_SESSION_PREFIX + userId),
+                    oldTokenId,
+                    newTokenId,
+                    userId.toString(),
+                    String.valueOf(ttl.toMillis()),
+                    sessionData(userAgent, ipAddress),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(MAX_SESSIONS_PER_USER),
+                    REFRESH_TOKEN_PREFIX,
+                    SESSION_DATA_PREFIX);
+
+            if (rotated == null || rotated == 0) {
+                log.warn("Refresh token not found, expired or already used: {}", oldTokenId);
+                return false;
             }
-            
-        } catch (FlowXException e) {
-            throw e; // Re-throw FlowX exceptions
+            log.info("Rotated refresh token {} to {} for user: {}", oldTokenId, newTokenId, userId);
+            return true;
+
         } catch (Exception e) {
-            log.error("Error during token validation for token: {} - {}", tokenId, e.getMessage(), e);
+            log.error("Error during token rotation for token: {} - {}", oldTokenId, e.getMessage(), e);
             throw new FlowXException(FlowXError.INTERNAL_SERVER_ERROR, "Token validation failed");
         }
     }
@@ -147,21 +136,13 @@ public class RefreshTokenSessionService {
      */
     public void revokeAllUserSessions(UUID userId) {
         try {
-            String userSessionKey = USER_SESSION_PREFIX + userId;
-            Set<String> tokenIds = redisTemplate.opsForSet().members(userSessionKey);
-            
-            if (tokenIds != null && !tokenIds.isEmpty()) {
-                List<String> keysToDelete = tokenIds.stream()
-                    .flatMap(tokenId -> List.of(
-                        REFRESH_TOKEN_PREFIX + tokenId,
-                        SESSION_DATA_PREFIX + tokenId
-                    ).stream())
-                    .toList();
-                
-                redisTemplate.delete(keysToDelete);
-                redisTemplate.delete(userSessionKey);
-                
-                log.info("Revoked {} sessions for user: {}", tokenIds.size(), userId);
+            Long revoked = redisTemplate.execute(REVOKE_ALL_SCRIPT,
+                    List.of(USER_SESSION_PREFIX + userId),
+                    REFRESH_TOKEN_PREFIX,
+                    SESSION_DATA_PREFIX);
+
+            if (revoked != null && revoked > 0) {
+                log.info("Revoked {} sessions for user: {}", revoked, userId);
             }
             
         } catch (Exception e) {
@@ -175,19 +156,13 @@ public class RefreshTokenSessionService {
      */
     public void revokeSession(String tokenId) {
         try {
-            UUID userId = getUserIdFromToken(tokenId);
-            if (userId != null) {
-                // Remove token
-                redisTemplate.delete(REFRESH_TOKEN_PREFIX + tokenId);
-                
-                // Remove from user session set
-                String userSessionKey = USER_SESSION_PREFIX + userId;
-                redisTemplate.opsForSet().remove(userSessionKey, tokenId);
-                
-                // Remove session metadata
-                redisTemplate.delete(SESSION_DATA_PREFIX + tokenId);
-                
-                log.info("Revoked session {} for user: {}", tokenId, userId);
+            Long revoked = redisTemplate.execute(REVOKE_SCRIPT,
+                    List.of(REFRESH_TOKEN_PREFIX + tokenId, SESSION_DATA_PREFIX + tokenId),
+                    tokenId,
+                    USER_SESSION_PREFIX);
+
+            if (revoked != null && revoked > 0) {
+                log.info("Revoked session {}", tokenId);
             }
         } catch (Exception e) {
             log.error("Error revoking session: {} - {}", tokenId, e.getMessage(), e);
@@ -200,7 +175,7 @@ public class RefreshTokenSessionService {
     public int getActiveSessionCount(UUID userId) {
         try {
             String userSessionKey = USER_SESSION_PREFIX + userId;
-            Long count = redisTemplate.opsForSet().size(userSessionKey);
+            Long count = redisTemplate.opsForZSet().zCard(userSessionKey);
             return count != null ? count.intValue() : 0;
         } catch (Exception e) {
             log.error("Error getting session count for user: {} - {}", userId, e.getMessage());
@@ -209,12 +184,13 @@ public class RefreshTokenSessionService {
     }
     
     /**
-     * Get active session IDs for a user
+     * Get active session IDs for a user, oldest first
      */
     public Set<String> getUserActiveSessions(UUID userId) {
         try {
             String userSessionKey = USER_SESSION_PREFIX + userId;
-            return redisTemplate.opsForSet().members(userSessionKey);
+            Set<String> sessions = redisTemplate.opsForZSet().range(userSessionKey, 0, -1);
+            return sessions != null ? sessions : Set.of();
         } catch (Exception e) {
             log.error("Error getting active sessions for user: {} - {}", userId, e.getMessage());
             return Set.of();
@@ -235,45 +211,37 @@ public class RefreshTokenSessionService {
     }
     
     /**
-     * Enforce session limit per user by removing oldest sessions
-     */
-    private void enforceSessionLimit(UUID userId) {
-        try {
-            String userSessionKey = USER_SESSION_PREFIX + userId;
-            Long sessionCount = redisTemplate.opsForSet().size(userSessionKey);
-            
-            if (sessionCount != null && sessionCount >= MAX_SESSIONS_PER_USER) {
-                // Get all sessions and remove oldest ones
-                Set<String> sessions = redisTemplate.opsForSet().members(userSessionKey);
-                if (sessions != null && sessions.size() >= MAX_SESSIONS_PER_USER) {
-                    
-                    int toRemove = sessions.size() - MAX_SESSIONS_PER_USER + 1;
-                    
-                    sessions.stream()
-                        .limit(toRemove)
-                        .forEach(tokenId -> {
-                            redisTemplate.delete(REFRESH_TOKEN_PREFIX + tokenId);
-                            redisTemplate.delete(SESSION_DATA_PREFIX + tokenId);
-                            redisTemplate.opsForSet().remove(userSessionKey, tokenId);
-                        });
-                    
-                    log.info("Removed {} old sessions for user: {} due to session limit", toRemove, userId);
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error enforcing session limit for user: {} - {}", userId, e.getMessage());
-        }
-    }
-    
-    /**
-     * Clean up expired sessions (scheduled task can call this)
+     * Run one bounded step of the incremental sweep over user session sets, removing token ids
+     * whose refresh token has expired. The scan cursor is kept in Redis, so successive calls
+     * (from any node) walk the keyspace once and then start over.
      */
-    public void cleanupExpiredSessions() {
+    public SessionSweepResult cleanupExpiredSessions(int batchSize) {
         try {
-            // This is handled automatically by Redis TTL, but we can add manual cleanup logic here if needed
-            log.debug("Session cleanup completed - Redis TTL handles expiration automatically");
+            List<Object> result = redisTemplate.execute(SWEEP_SCRIPT,
+                    List.of(SWEEP_CURSOR_KEY),
+                    USER_SESSION_PREFIX + "*",
+                    String.valueOf(batchSize),
+                    REFRESH_TOKEN_PREFIX);
+
+            if (result == null || result.size() < 4) return SessionSweepResult.EMPTY;
+            return new SessionSweepResult(
+                    ((Number) result.get(0)).longValue(),
+                    ((Number) result.get(1)).longValue(),
+                    ((Number) result.get(2)).longValue(),
+                    ((Number) result.get(3)).longValue() == 1L);
         } catch (Exception e) {
             log.error("Error during session cleanup: {}", e.getMessage(), e);
+            return SessionSweepResult.EMPTY;
         }
     }
-} 
\ No newline at end of file
+
+    public record SessionSweepResult(long keysScanned, long entriesRemoved, long keysDeleted, boolean passCompleted) {
+        static final SessionSweepResult EMPTY = new SessionSweepResult(0, 0, 0, true);
+    }
+
+    private static String sessionData(String userAgent, String ipAddress) {
+        return String.format("%s|%s|%d", userAgent != null ? userAgent : "unknown",
+                ipAddress != null ? ipAddress : "unknown",
+                System.currentTimeMillis());
+    }
+}
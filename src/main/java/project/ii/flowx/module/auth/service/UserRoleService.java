@@ -33,6 +33,7 @@ public class UserRoleService {
     UserRoleMapper userRoleMapper;
     RoleService roleService;
     UserRepository userRepository;
+    PermissionIndexService permissionIndexService;
 
     @Transactional(readOnly = true)
     @Cacheable(value = "roles", key = "#userId", unless = "#result == null || #result.isEmpty()")
@@ -95,6 +96,7 @@ public class UserRoleService {
         userRole.setRole(role); // Set role object after mapping
         
         userRoleRepository.save(userRole);
+        permissionIndexService.evict(userId);
         log.info("Assigned role {} to user {} in scope {}", role.getName(), userId, userRoleCreateRequest.getScope());
     }
 
@@ -106,6 +108,7 @@ public class UserRoleService {
         }
         
         userRoleRepository.deleteByUserIdAndRoleIdAndScopeAndScopeId(userId, roleId, roleScope, scopeId);
+        permissionIndexService.evict(userId);
         log.info("Deleted role {} from user {} in scope {}", roleId, userId, roleScope);
     }
 
@@ -114,6 +117,7 @@ public class UserRoleService {
     @CacheEvict(value = "roles", key = "#userId")
     public void deleteUserRolesByUserIdAndScope(UUID userId, RoleScope roleScope, UUID scopeId) {
         userRoleRepository.deleteByUserIdAndScopeAndScopeId(userId, roleScope, scopeId);
+        permissionIndexService.evict(userId);
         log.info("Deleted all roles for user {} in scope {}", userId, roleScope);
     }
 
@@ -122,6 +126,7 @@ public class UserRoleService {
     @CacheEvict(value = "roles", allEntries = true)
     public void deleteUserRolesByScope(RoleScope roleScope, UUID scopeId) {
         userRoleRepository.deleteByScopeAndScopeId(roleScope, scopeId);
+        permissionIndexService.evictAll();
         log.info("Deleted all user roles in scope {} with ID {}", roleScope, scopeId);
     }
 }
\ No newline at end of file
@@ -150,6 +150,8 @@ public class CommentService {
         }
         
         commentRepository.delete(comment);
+        // The delete cascades to replies, so forget every comment rather than just this one
+        entityLookupService.evictAll(Comment.class);
         log.info("Deleted comment {} by user {}", id, getUserId());
     }
 
@@ -11,6 +11,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import project.ii.flowx.applications.events.PostEvent;
+import project.ii.flowx.applications.helper.EntityLookupService;
 import project.ii.flowx.module.auth.service.AuthorizationService;
 import project.ii.flowx.module.file.FileService;
 import project.ii.flowx.exceptionhandler.FlowXError;
@@ -18,6 +19,7 @@ import project.ii.flowx.exceptionhandler.FlowXException;
 import project.ii.flowx.module.content.dto.post.*;
 import project.ii.flowx.module.content.dto.comment.CommentResponse;
 import project.ii.flowx.module.file.dto.FileResponse;
+import project.ii.flowx.module.content.entity.Comment;
 import project.ii.flowx.module.content.entity.Post;
 import project.ii.flowx.module.content.mapper.PostMapper;
 import project.ii.flowx.module.content.mapper.CommentMapper;
@@ -41,6 +43,7 @@ public class PostService {
     FileService fileService;
 
     AuthorizationService authorizationService;
+    EntityLookupService entityLookupService;
     ApplicationEventPublisher eventPublisher;
 
     @Transactional
@@ -119,6 +122,9 @@ public class PostService {
         }
         
         postRepository.delete(post);
+        entityLookupService.evict(Post.class, id);
+        // The delete cascades to the post's comments
+        entityLookupService.evictAll(Comment.class);
         log.info("Deleted post {} by user {}", id, getUserId());
     }
 
@@ -1,6 +1,8 @@
 package project.ii.flowx.module.manage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.ii.flowx.module.manage.entity.ProjectMember;
 
@@ -14,6 +16,12 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, UU
      * Find project members by project ID
      */
     List<ProjectMember> findByProjectId(UUID projectId);
+
+    /**
+     * User IDs of a project's members, without loading the member rows
+     */
+    @Query("SELECT pm.userId FROM ProjectMember pm WHERE pm.project.id = :projectId")
+    List<UUID> findUserIdsByProjectId(@Param("projectId") UUID projectId);
     
     /**
      * Find project members by user ID
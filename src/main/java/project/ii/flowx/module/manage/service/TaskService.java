@@ -130,6 +130,7 @@ public class TaskService {
         }
         
         taskRepository.delete(task);
+        entityLookupService.evict(Task.class, id);
         
         // Publish task deleted event
         UUID userId = getUserId();
@@ -222,8 +223,7 @@ public class TaskService {
 
     // Helper methods
     private Task getTaskByIdInternal(UUID id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Task not found"));
+        return entityLookupService.getTaskById(id);
     }
 
     private UUID getUserId() {
@@ -5,12 +5,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import project.ii.flowx.dto.CursorPageResponse;
 import project.ii.flowx.dto.Response;
 import project.ii.flowx.module.message.service.ConversationService;
 import project.ii.flowx.module.message.dto.conversation.ConversationCreateRequest;
 import project.ii.flowx.module.message.dto.conversation.ConversationResponse;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -42,11 +42,13 @@ public class ConversationController {
     }
 
     @GetMapping
-    public Response<List<ConversationResponse>> getMyConversation() {
-        List<ConversationResponse> responses = conversationService.getMyConversations();
-        return Response.<List<ConversationResponse>>builder()
+    public Response<CursorPageResponse<ConversationResponse>> getMyConversation(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<ConversationResponse> responses = conversationService.getMyConversations(cursor, limit);
+        return Response.<CursorPageResponse<ConversationResponse>>builder()
                 .code(200)
-                .message("All conversations retrieved successfully")
+                .message("Conversations retrieved successfully")
                 .data(responses)
                 .build();
     }
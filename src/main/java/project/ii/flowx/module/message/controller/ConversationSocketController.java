@@ -5,8 +5,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
+import project.ii.flowx.applications.enums.ConversationActivity;
+import project.ii.flowx.module.message.service.ConversationActivityBroadcaster;
 import project.ii.flowx.module.message.service.MemberService;
 import project.ii.flowx.module.message.service.MessageService;
 import project.ii.flowx.module.message.dto.message.MessageCreateRequest;
@@ -14,8 +15,12 @@ import project.ii.flowx.module.message.dto.message.MessageResponse;
 import project.ii.flowx.module.message.dto.message.MessageUpdateRequest;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import project.ii.flowx.security.UserPrincipal;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.UUID;
 
 @Controller
@@ -25,28 +30,49 @@ import java.util.UUID;
 public class ConversationSocketController {
     MessageService messageService;
     MemberService memberService;
-    SimpMessagingTemplate messagingTemplate;
+    ConversationActivityBroadcaster activityBroadcaster;
 
     // Gửi tin nhắn mới
     @MessageMapping("/conversation.sendMessage")
     public void sendMessage(MessageCreateRequest request) {
-        MessageResponse response = messageService.createMessage(request);
-        messagingTemplate.convertAndSend("/topic/conversation/" + response.getConversationId(), response);
+        // MessageEventHandler broadcasts the message once it is committed
+        messageService.createMessage(request);
     }
 
     // Sửa tin nhắn
     @MessageMapping("/conversation.updateMessage")
     public void updateMessage(@Payload MessageUpdateRequest request, @Header("messageId") UUID messageId, Principal principal) {
-        MessageResponse response = messageService.updateMessage(messageId, request);
-        messagingTemplate.convertAndSend("/topic/conversation/" + response.getConversationId(), response);
+        messageService.updateMessage(messageId, request);
     }
 
+    // Cập nhật mốc đã đọc, sự kiện đã đọc được gửi gộp theo lô
     @MessageMapping("/conversation.readAt")
-    public void readMessage(@Header("conversationId") UUID conversationId, @Header("userId") UUID userId, @Header("readAt") String readAt) {
-        // Gọi memberService để cập nhật readAt
-        // memberService.updateReadAt(conversationId, userId, readAt); // Cần bổ sung hàm này trong MemberService
-        // Broadcast sự kiện đã đọc nếu cần
-        messagingTemplate.convertAndSend("/topic/conversation/" + conversationId + "/read", userId);
+    public void readMessage(@Header("conversationId") UUID conversationId,
+                            @Header(value = "readAt", required = false) String readAt,
+                            Principal principal) {
+        if (!(principal instanceof UsernamePasswordAuthenticationToken auth)
+                || !(auth.getPrincipal() instanceof UserPrincipal userPrincipal)) return;
+
+        LocalDateTime watermark = null;
+        if (readAt != null && !readAt.isBlank()) {
+            try {
+                watermark = LocalDateTime.parse(readAt);
+            } catch (DateTimeParseException e) {
+                log.warn("Ignoring malformed readAt {} for conversation {}", readAt, conversationId);
+                return;
+            }
+        }
+        memberService.updateReadAt(conversationId, userPrincipal.getId(), watermark);
+    }
+
+    // Đang gõ / đang xem, gửi gộp qua kênh tạm thời, không lưu và không đi qua MessageService
+    @MessageMapping("/conversation.activity")
+    public void activity(@Header("conversationId") UUID conversationId,
+                         @Header("activity") ConversationActivity activity,
+                         Principal principal) {
+        if (!(principal instanceof UsernamePasswordAuthenticationToken auth)
+                || !(auth.getPrincipal() instanceof UserPrincipal userPrincipal)) return;
+        activityBroadcaster.submit(conversationId, userPrincipal.getId(), activity);
     }
 
     // Xóa tin nhắn (cập nhật messageDeleteMap nếu không phải tin nhắn của mình)
@@ -65,6 +91,5 @@ public class ConversationSocketController {
             // Nếu không phải tin nhắn của mình, cập nhật messageDeleteMap cho member
             // memberService.updateMessageDeleteMap(message.getConversationId(), currentUserId, messageId);
         }
-        messagingTemplate.convertAndSend("/topic/conversation/message-deleted", messageId);
     }
 }
\ No newline at end of file
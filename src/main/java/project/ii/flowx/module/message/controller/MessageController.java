@@ -11,13 +11,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import project.ii.flowx.applications.enums.CursorDirection;
+import project.ii.flowx.dto.CursorPageResponse;
 import project.ii.flowx.dto.Response;
 import project.ii.flowx.module.message.dto.message.MessageCreateRequest;
 import project.ii.flowx.module.message.dto.message.MessageResponse;
+import project.ii.flowx.module.message.dto.message.MessageSearchResponse;
 import project.ii.flowx.module.message.dto.message.MessageUpdateRequest;
 import project.ii.flowx.module.message.service.MessageService;
 
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -94,12 +97,18 @@ public class MessageController {
 
     @Operation(
             summary = "Get messages by conversation",
-            description = "Retrieves all messages in a conversation. Messages are ordered by creation time.",
+            description = "Retrieves one page of a conversation's messages, ordered oldest first. " +
+                    "Without a cursor, BEFORE returns the latest messages. Pass nextCursor back to continue " +
+                    "backward (BEFORE) or forward (AFTER).",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Messages retrieved successfully"
                     ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor"
+                    ),
                     @ApiResponse(
                             responseCode = "403",
                             description = "User not authorized to view this conversation"
@@ -107,17 +116,94 @@ public class MessageController {
             }
     )
     @GetMapping("/conversation/{conversationId}")
-    public Response<List<MessageResponse>> getMessagesByConversation(
-            @Parameter(description = "Conversation ID") @PathVariable UUID conversationId) {
+    public Response<CursorPageResponse<MessageResponse>> getMessagesByConversation(
+            @Parameter(description = "Conversation ID") @PathVariable UUID conversationId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "BEFORE for older messages, AFTER for newer ones") @RequestParam(defaultValue = "BEFORE") CursorDirection direction,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "50") int limit) {
         log.info("Getting messages for conversation: {}", conversationId);
-        List<MessageResponse> messages = messageService.getMessagesByConversation(conversationId);
-        return Response.<List<MessageResponse>>builder()
+        CursorPageResponse<MessageResponse> messages = messageService.getMessagesByConversation(conversationId, cursor, direction, limit);
+        return Response.<CursorPageResponse<MessageResponse>>builder()
                 .code(200)
                 .message("Messages retrieved successfully")
                 .data(messages)
                 .build();
     }
 
+    @Operation(
+            summary = "Search messages",
+            description = "Full-text search over the messages of the current user's conversations, best match first. " +
+                    "Supports quoted phrases, OR and -exclusions. Pass nextCursor back to get the next page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Search results retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Blank or too long query, or invalid cursor"
+                    )
+            }
+    )
+    @GetMapping("/search")
+    public Response<CursorPageResponse<MessageSearchResponse>> searchMessages(
+            @Parameter(description = "Search query") @RequestParam("q") String query,
+            @Parameter(description = "Restrict the search to one conversation") @RequestParam(required = false) UUID conversationId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 50") @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<MessageSearchResponse> results = messageService.searchMessages(query, conversationId, cursor, limit);
+        return Response.<CursorPageResponse<MessageSearchResponse>>builder()
+                .code(200)
+                .message("Search results retrieved successfully")
+                .data(results)
+                .build();
+    }
+
+    @Operation(
+            summary = "Get my unread counts",
+            description = "Returns the unread message count of every conversation the current user belongs to, keyed by conversation ID.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Unread counts retrieved successfully"
+                    )
+            }
+    )
+    @GetMapping("/unread-counts")
+    public Response<Map<UUID, Long>> getMyUnreadCounts() {
+        Map<UUID, Long> unreadCounts = messageService.getMyUnreadCounts();
+        return Response.<Map<UUID, Long>>builder()
+                .code(200)
+                .message("Unread counts retrieved successfully")
+                .data(unreadCounts)
+                .build();
+    }
+
+    @Operation(
+            summary = "Get unread message count",
+            description = "Counts messages from other members newer than the current user's read watermark.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Unread count retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "User not authorized to view this conversation"
+                    )
+            }
+    )
+    @GetMapping("/conversation/{conversationId}/unread-count")
+    public Response<Long> getUnreadCount(
+            @Parameter(description = "Conversation ID") @PathVariable UUID conversationId) {
+        long unread = messageService.getUnreadCount(conversationId);
+        return Response.<Long>builder()
+                .code(200)
+                .message("Unread count retrieved successfully")
+                .data(unread)
+                .build();
+    }
+
     @Operation(
             summary = "Delete a message",
             description = "Soft deletes a message. Only the message sender can delete the message.",
@@ -149,7 +235,7 @@ public class MessageController {
 
     @Operation(
             summary = "Mark message as read",
-            description = "Marks a message as read by the current user.",
+            description = "Marks this message and every earlier one in its conversation as read by the current user.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
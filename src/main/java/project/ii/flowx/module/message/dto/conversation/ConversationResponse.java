@@ -19,4 +19,7 @@ public class ConversationResponse {
     String background;
     LocalDateTime createdAt;
     LocalDateTime updatedAt;
+    LocalDateTime lastActivityAt;
+    UUID lastMessageSenderId;
+    String lastMessagePreview;
 } 
\ No newline at end of file
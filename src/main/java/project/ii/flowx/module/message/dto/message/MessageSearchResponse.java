@@ -0,0 +1,24 @@
+package project.ii.flowx.module.message.dto.message;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Message Search Result")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+public class MessageSearchResponse {
+    UUID id;
+    UUID conversationId;
+    UUID senderId;
+    LocalDateTime createdAt;
+    @Schema(description = "Matching fragments of the content, HTML escaped, with matches wrapped in <mark> tags")
+    String snippet;
+    float rank;
+}
@@ -0,0 +1,35 @@
+package project.ii.flowx.module.message.dto.message;
+
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position (rank, id) in ranked search results, handed to clients as an opaque token.
+ * The first page starts above every possible rank and id.
+ */
+public record SearchCursor(float rank, UUID id) {
+    public static final SearchCursor FIRST = new SearchCursor(Float.MAX_VALUE, new UUID(-1L, -1L));
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decode a client supplied cursor, null or blank means the first page */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) return FIRST;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) throw new IllegalArgumentException("Missing separator");
+            return new SearchCursor(Float.parseFloat(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new FlowXException(FlowXError.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -3,7 +3,8 @@ package project.ii.flowx.module.message.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
-import org.checkerframework.checker.units.qual.C;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
 import project.ii.flowx.applications.enums.ConverstationType;
 
@@ -12,7 +13,9 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "conversation")
+@Table(name = "conversation", indexes = {
+    @Index(name = "idx_conversation_last_activity", columnList = "last_activity_at, id")
+})
 @Getter
 @Setter
 @ToString
@@ -35,12 +38,32 @@ public class Conversation {
     @Column()
     UUID projectId; // Optional, only for project conversations
 
+    @CreationTimestamp
     @Column(nullable = false, updatable = false)
     LocalDateTime createdAt;
 
+    @UpdateTimestamp
     @Column(nullable = false)
     LocalDateTime updatedAt;
 
+    // Denormalized from the latest message so the inbox can be listed without touching messages
+    @Column(name = "last_activity_at")
+    LocalDateTime lastActivityAt;
+
+    @Column(name = "last_message_id", columnDefinition = "UUID")
+    UUID lastMessageId;
+
+    @Column(name = "last_message_sender_id", columnDefinition = "UUID")
+    UUID lastMessageSenderId;
+
+    @Column(name = "last_message_preview", length = 200)
+    String lastMessagePreview;
+
+    @PrePersist
+    void initLastActivity() {
+        if (lastActivityAt == null) lastActivityAt = LocalDateTime.now();
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
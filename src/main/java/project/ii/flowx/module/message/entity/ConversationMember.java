@@ -10,7 +10,11 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "member")
+@Table(name = "member", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_member_conversation_user", columnNames = {"conversation_id", "user_id"})
+}, indexes = {
+    @Index(name = "idx_member_user", columnList = "user_id, conversation_id")
+})
 @Getter
 @Setter
 @ToString
@@ -21,7 +21,7 @@ import java.util.UUID;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
 @Table(name = "messages", indexes = {
-    @Index(name = "idx_message_conversation", columnList = "conversation_id"),
+    @Index(name = "idx_message_conversation_created", columnList = "conversation_id, created_at, id"),
     @Index(name = "idx_message_sender", columnList = "sender_id"),
     @Index(name = "idx_message_created", columnList = "created_at")
 })
@@ -1,6 +1,7 @@
 package project.ii.flowx.module.message.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import project.ii.flowx.module.message.dto.message.MessageCreateRequest;
 import project.ii.flowx.module.message.dto.message.MessageUpdateRequest;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface MessageMapper {
+    @Mapping(target = "conversationId", source = "conversation.id")
     MessageResponse toMessageResponse(Message message);
     List<MessageResponse> toMessageResponseList(List<Message> messages);
     Message toMessage(MessageCreateRequest request);
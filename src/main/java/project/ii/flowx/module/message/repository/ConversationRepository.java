@@ -1,13 +1,59 @@
 package project.ii.flowx.module.message.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.ii.flowx.module.message.entity.Conversation;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
     List<Conversation> findByProjectId(UUID projectId);
-}
\ No newline at end of file
+
+    /**
+     * Most recently active conversations the user is a member of
+     */
+    @Query(value = "SELECT c.* FROM member cm JOIN conversation c ON c.id = cm.conversation_id " +
+            "WHERE cm.user_id = :userId " +
+            "ORDER BY c.last_activity_at DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<Conversation> findLatestForMember(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    /**
+     * The user's conversations with less recent activity than the (lastActivityAt, id) cursor
+     */
+    @Query(value = "SELECT c.* FROM member cm JOIN conversation c ON c.id = cm.conversation_id " +
+            "WHERE cm.user_id = :userId AND (c.last_activity_at, c.id) < (:lastActivityAt, :id) " +
+            "ORDER BY c.last_activity_at DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<Conversation> findPageForMemberBefore(@Param("userId") UUID userId,
+                                               @Param("lastActivityAt") LocalDateTime lastActivityAt,
+                                               @Param("id") UUID id,
+                                               @Param("limit") int limit);
+
+    /**
+     * Record a new last message, unless a later one was already recorded
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastActivityAt = :sentAt, c.lastMessageId = :messageId, " +
+            "c.lastMessageSenderId = :senderId, c.lastMessagePreview = :preview " +
+            "WHERE c.id = :conversationId AND (c.lastActivityAt IS NULL OR c.lastActivityAt <= :sentAt)")
+    int recordLastMessage(@Param("conversationId") UUID conversationId,
+                          @Param("messageId") UUID messageId,
+                          @Param("senderId") UUID senderId,
+                          @Param("preview") String preview,
+                          @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Refresh the preview when the last message is edited or deleted, a null preview means deleted
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessagePreview = :preview " +
+            "WHERE c.id = :conversationId AND c.lastMessageId = :messageId")
+    int updateLastMessagePreview(@Param("conversationId") UUID conversationId,
+                                 @Param("messageId") UUID messageId,
+                                 @Param("preview") String preview);
+}
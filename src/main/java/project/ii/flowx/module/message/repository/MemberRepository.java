@@ -1,13 +1,37 @@
 package project.ii.flowx.module.message.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.ii.flowx.module.message.entity.ConversationMember;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MemberRepository extends JpaRepository<ConversationMember, UUID> {
     List<ConversationMember> findByConversationId(UUID conversationId);
-}
\ No newline at end of file
+
+    Optional<ConversationMember> findByConversationIdAndUserId(UUID conversationId, UUID userId);
+
+    boolean existsByConversationIdAndUserId(UUID conversationId, UUID userId);
+
+    @Query("SELECT m.userId FROM ConversationMember m WHERE m.conversationId = :conversationId")
+    List<UUID> findUserIdsByConversationId(@Param("conversationId") UUID conversationId);
+
+    /**
+     * Move a member's read watermark forward, never backward
+     * @return 1 if the watermark advanced, 0 if it was already at or past readAt or the user is not a member
+     */
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.readAt = :readAt " +
+            "WHERE m.conversationId = :conversationId AND m.userId = :userId " +
+            "AND (m.readAt IS NULL OR m.readAt < :readAt)")
+    int advanceReadAt(@Param("conversationId") UUID conversationId,
+                      @Param("userId") UUID userId,
+                      @Param("readAt") LocalDateTime readAt);
+}
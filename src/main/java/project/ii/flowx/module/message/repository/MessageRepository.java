@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import project.ii.flowx.module.message.entity.Message;
 import project.ii.flowx.applications.enums.MessageStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,10 +15,40 @@ import java.util.UUID;
 public interface MessageRepository extends JpaRepository<Message, UUID> {
     
     /**
-     * Find messages by conversation ID, excluding deleted messages
+     * Newest messages of a conversation, excluding deleted messages, newest first
      */
-    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.status != 'DELETED' ORDER BY m.createdAt ASC")
-    List<Message> findByConversationIdOrderByCreatedAtAsc(@Param("conversationId") UUID conversationId);
+    @Query(value = "SELECT * FROM messages m WHERE m.conversation_id = :conversationId AND m.status <> 'DELETED' " +
+            "ORDER BY m.created_at DESC, m.id DESC LIMIT :limit", nativeQuery = true)
+    List<Message> findLatestPage(@Param("conversationId") UUID conversationId, @Param("limit") int limit);
+
+    /**
+     * Oldest messages of a conversation, excluding deleted messages, oldest first
+     */
+    @Query(value = "SELECT * FROM messages m WHERE m.conversation_id = :conversationId AND m.status <> 'DELETED' " +
+            "ORDER BY m.created_at ASC, m.id ASC LIMIT :limit", nativeQuery = true)
+    List<Message> findOldestPage(@Param("conversationId") UUID conversationId, @Param("limit") int limit);
+
+    /**
+     * Messages strictly older than the (createdAt, id) cursor, newest first
+     */
+    @Query(value = "SELECT * FROM messages m WHERE m.conversation_id = :conversationId AND m.status <> 'DELETED' " +
+            "AND (m.created_at, m.id) < (:createdAt, :id) " +
+            "ORDER BY m.created_at DESC, m.id DESC LIMIT :limit", nativeQuery = true)
+    List<Message> findPageBefore(@Param("conversationId") UUID conversationId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") UUID id,
+                                 @Param("limit") int limit);
+
+    /**
+     * Messages strictly newer than the (createdAt, id) cursor, oldest first
+     */
+    @Query(value = "SELECT * FROM messages m WHERE m.conversation_id = :conversationId AND m.status <> 'DELETED' " +
+            "AND (m.created_at, m.id) > (:createdAt, :id) " +
+            "ORDER BY m.created_at ASC, m.id ASC LIMIT :limit", nativeQuery = true)
+    List<Message> findPageAfter(@Param("conversationId") UUID conversationId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") UUID id,
+                                @Param("limit") int limit);
     
     /**
      * Find messages by conversation ID and status
@@ -26,11 +57,86 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
     List<Message> findByConversationIdAndStatus(@Param("conversationId") UUID conversationId, @Param("status") MessageStatus status);
     
     /**
-     * Count unread messages in a conversation for a specific user
+     * Count messages from others newer than the member's read watermark, or than the join time if nothing was read yet
      */
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND m.status = 'SENT' AND m.senderId != :userId")
-    Long countUnreadMessagesByConversationAndUser(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+    @Query("SELECT COUNT(m) FROM Message m, ConversationMember cm " +
+            "WHERE cm.conversationId = :conversationId AND cm.userId = :userId " +
+            "AND m.conversation.id = cm.conversationId AND m.senderId <> :userId AND m.status <> 'DELETED' " +
+            "AND m.createdAt > COALESCE(cm.readAt, cm.joinedAt)")
+    long countUnreadForMember(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
     
+    /**
+     * Unread count of every conversation the user is a member of, counted from each read watermark
+     */
+    @Query("SELECT cm.conversationId AS conversationId, COUNT(m.id) AS unread " +
+            "FROM ConversationMember cm LEFT JOIN Message m ON m.conversation.id = cm.conversationId " +
+            "AND m.senderId <> :userId AND m.status <> 'DELETED' " +
+            "AND m.createdAt > COALESCE(cm.readAt, cm.joinedAt) " +
+            "WHERE cm.userId = :userId GROUP BY cm.conversationId")
+    List<UnreadCount> countUnreadByUser(@Param("userId") UUID userId);
+
+    interface UnreadCount {
+        UUID getConversationId();
+        long getUnread();
+    }
+
+    // Ranks every match in the caller's conversations through the GIN index on content_tsv,
+    // pages by (rank, id) and only builds snippets for the rows of the returned page.
+    // Matches are delimited by the control characters \u0002 and \u0003, never by markup,
+    // so the raw content can be escaped before the highlight tags are added.
+    String SEARCH_HITS = "WITH q AS (SELECT websearch_to_tsquery('simple', :query) AS query), " +
+            "page AS (SELECT m.id, m.conversation_id, m.sender_id, m.created_at, m.content, " +
+            "ts_rank(m.content_tsv, q.query) AS rank " +
+            "FROM q, messages m JOIN member cm ON cm.conversation_id = m.conversation_id AND cm.user_id = :userId " +
+            "WHERE m.content_tsv @@ q.query AND m.status <> 'DELETED' ";
+    String SEARCH_PAGE = "AND (ts_rank(m.content_tsv, q.query), m.id) < (:rank, :id) " +
+            "ORDER BY rank DESC, m.id DESC LIMIT :limit) " +
+            "SELECT page.id AS id, page.conversation_id AS conversationId, page.sender_id AS senderId, " +
+            "page.created_at AS createdAt, page.rank AS rank, " +
+            "ts_headline('simple', translate(page.content, chr(2) || chr(3), ''), q.query, " +
+            "'StartSel=\"' || chr(2) || '\", StopSel=\"' || chr(3) || '\", MaxFragments=2, MaxWords=20, MinWords=5') AS snippet " +
+            "FROM page, q ORDER BY page.rank DESC, page.id DESC";
+
+    /**
+     * Messages matching the query in any conversation the user belongs to, best match first,
+     * strictly after the (rank, id) cursor
+     */
+    @Query(value = SEARCH_HITS + SEARCH_PAGE, nativeQuery = true)
+    List<SearchHit> searchForMember(@Param("userId") UUID userId,
+                                    @Param("query") String query,
+                                    @Param("rank") float rank,
+                                    @Param("id") UUID id,
+                                    @Param("limit") int limit);
+
+    /**
+     * Same as {@link #searchForMember} restricted to one conversation
+     */
+    @Query(value = SEARCH_HITS + "AND m.conversation_id = :conversationId " + SEARCH_PAGE, nativeQuery = true)
+    List<SearchHit> searchForMemberInConversation(@Param("userId") UUID userId,
+                                                  @Param("conversationId") UUID conversationId,
+                                                  @Param("query") String query,
+                                                  @Param("rank") float rank,
+                                                  @Param("id") UUID id,
+                                                  @Param("limit") int limit);
+
+    interface SearchHit {
+        UUID getId();
+        UUID getConversationId();
+        UUID getSenderId();
+        LocalDateTime getCreatedAt();
+        float getRank();
+        String getSnippet();
+    }
+
+    boolean existsByIdAndSenderId(UUID id, UUID senderId);
+
+    /**
+     * Whether the user is a member of the conversation the message belongs to
+     */
+    @Query("SELECT COUNT(cm) > 0 FROM Message m, ConversationMember cm " +
+            "WHERE m.id = :messageId AND cm.conversationId = m.conversation.id AND cm.userId = :userId")
+    boolean isVisibleTo(@Param("messageId") UUID messageId, @Param("userId") UUID userId);
+
     /**
      * Find messages by sender ID
      */
@@ -0,0 +1,131 @@
+package project.ii.flowx.module.message.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project.ii.flowx.applications.enums.ConversationActivity;
+import project.ii.flowx.module.message.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lane for typing and viewing indicators, kept apart from the durable message path.
+ * Nothing is persisted or done in a transaction: each user is rate limited, updates are coalesced
+ * to the latest state per member, and one frame per conversation is sent to
+ * /topic/conversation.activity/{id} per flush window. States older than the stale limit are dropped
+ * instead of sent, and the destination is droppable for slow consumers.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConversationActivityBroadcaster {
+    public static final String DESTINATION_PREFIX = "/topic/conversation.activity/";
+
+    SimpMessagingTemplate messagingTemplate;
+    MemberRepository memberRepository;
+
+    ConversationUpdateCoalescer<Pending> pending = new ConversationUpdateCoalescer<>();
+
+    // Token bucket per user, charged by every update before anything else is looked at
+    Cache<UUID, RateBucket> rateBuckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
+
+    // Last accepted update per user, to skip repeats of the same state
+    Cache<UUID, Pending> lastAccepted = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    // Short lived so that leaving a conversation stops its indicators soon after
+    Cache<String, Boolean> membership = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    @NonFinal
+    @Value("${app.conversation-activity.min-interval-ms:300}")
+    long minIntervalMillis;
+
+    @NonFinal
+    @Value("${app.conversation-activity.burst:5}")
+    int burst;
+
+    @NonFinal
+    @Value("${app.conversation-activity.stale-ms:3000}")
+    long staleMillis;
+
+    public record Activity(UUID userId, ConversationActivity activity) { }
+
+    private record Pending(UUID conversationId, ConversationActivity activity, long at) { }
+
+    private record RateBucket(double tokens, long at) { }
+
+    /**
+     * Queue an activity update. Every update spends a token of the user's bucket, which holds
+     * up to burst tokens and refills one per minimum interval; without a token the update is dropped.
+     * Repeats of the same state within the minimum interval are then skipped. Returns whether the update was accepted.
+     */
+    public boolean submit(UUID conversationId, UUID userId, ConversationActivity activity) {
+        long now = System.currentTimeMillis();
+        if (!tryAcquire(userId, now)) return false;
+        Pending update = new Pending(conversationId, activity, now);
+
+        Pending previous = lastAccepted.getIfPresent(userId);
+        if (previous != null && previous.conversationId().equals(conversationId)
+                && previous.activity() == activity && now - previous.at() < minIntervalMillis) {
+            return false;
+        }
+        if (!isMember(conversationId, userId)) return false;
+
+        lastAccepted.put(userId, update);
+        pending.put(conversationId, userId, update, (older, newer) -> newer);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.conversation-activity.flush-ms:250}")
+    public void flush() {
+        long staleBefore = System.currentTimeMillis() - staleMillis;
+        pending.drain((conversationId, updates) -> {
+            List<Activity> payload = new ArrayList<>(updates.size());
+            updates.forEach((userId, update) -> {
+                if (update.at() >= staleBefore) payload.add(new Activity(userId, update.activity()));
+            });
+            if (payload.isEmpty()) return;
+            try {
+                messagingTemplate.convertAndSend(DESTINATION_PREFIX + conversationId, payload);
+            } catch (Exception e) {
+                log.error("Failed to broadcast activity for conversation {}: {}", conversationId, e.getMessage(), e);
+            }
+        });
+    }
+
+    private boolean tryAcquire(UUID userId, long now) {
+        boolean[] acquired = {false};
+        rateBuckets.asMap().compute(userId, (id, bucket) -> {
+            double tokens = bucket == null ? burst
+                    : Math.min(burst, bucket.tokens() + (double) (now - bucket.at()) / Math.max(1L, minIntervalMillis));
+            acquired[0] = tokens >= 1;
+            return new RateBucket(acquired[0] ? tokens - 1 : tokens, now);
+        });
+        return acquired[0];
+    }
+
+    private boolean isMember(UUID conversationId, UUID userId) {
+        return membership.get(conversationId + ":" + userId,
+                key -> memberRepository.existsByConversationIdAndUserId(conversationId, userId));
+    }
+}
@@ -3,6 +3,7 @@ package project.ii.flowx.module.message.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import project.ii.flowx.module.message.dto.conversation.ConversationCreateRequest;
@@ -12,7 +13,11 @@ import project.ii.flowx.module.message.repository.ConversationRepository;
 import project.ii.flowx.module.message.mapper.ConversationMapper;
 import project.ii.flowx.exceptionhandler.FlowXError;
 import project.ii.flowx.exceptionhandler.FlowXException;
+import project.ii.flowx.dto.Cursor;
+import project.ii.flowx.dto.CursorPageResponse;
+import project.ii.flowx.security.UserPrincipal;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +25,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ConversationService {
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int PREVIEW_LENGTH = 140;
+
     ConversationRepository conversationRepository;
     ConversationMapper conversationMapper;
 
@@ -37,10 +45,38 @@ public class ConversationService {
         conversationRepository.delete(conversation);
     }
 
+    /**
+     * The current user's conversations, most recently active first, one keyset page at a time
+     */
     @Transactional(readOnly = true)
-    public List<ConversationResponse> getMyConversations() {
-        ///  get my id
-        return conversationMapper.toConversationResponseList(conversationRepository.findAll());
+    public CursorPageResponse<ConversationResponse> getMyConversations(String cursor, int limit) {
+        UUID userId = getUserId();
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        Cursor position = Cursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<Conversation> conversations = position == null
+                ? conversationRepository.findLatestForMember(userId, pageSize + 1)
+                : conversationRepository.findPageForMemberBefore(userId, position.timestamp(), position.id(), pageSize + 1);
+
+        boolean hasMore = conversations.size() > pageSize;
+        if (hasMore) conversations = conversations.subList(0, pageSize);
+        String nextCursor = hasMore
+                ? new Cursor(conversations.getLast().getLastActivityAt(), conversations.getLast().getId()).encode()
+                : null;
+        return new CursorPageResponse<>(conversationMapper.toConversationResponseList(conversations), nextCursor, hasMore);
+    }
+
+    /** Record a just-sent message as the conversation's latest activity */
+    @Transactional
+    public void recordLastMessage(UUID conversationId, UUID messageId, UUID senderId, String content, LocalDateTime sentAt) {
+        conversationRepository.recordLastMessage(conversationId, messageId, senderId, previewOf(content), sentAt);
+    }
+
+    /** Refresh the preview if this message is the conversation's latest, null content means it was deleted */
+    @Transactional
+    public void refreshLastMessagePreview(UUID conversationId, UUID messageId, String content) {
+        conversationRepository.updateLastMessagePreview(conversationId, messageId, content == null ? null : previewOf(content));
     }
 
     @Transactional(readOnly = true)
@@ -51,4 +87,16 @@ public class ConversationService {
         }
         return conversationMapper.toConversationResponseList(conversations);
     }
-} 
\ No newline at end of file
+
+    private static String previewOf(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) return content;
+        int end = Character.isHighSurrogate(content.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return content.substring(0, end);
+    }
+
+    private UUID getUserId() {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder
+                .getContext().getAuthentication().getPrincipal();
+        return userPrincipal.getId();
+    }
+}
@@ -0,0 +1,35 @@
+package project.ii.flowx.module.message.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Keeps the latest pending update of each member per conversation until a flush drains it,
+ * so that broadcasters send at most one frame per conversation per window.
+ */
+final class ConversationUpdateCoalescer<V> {
+    // Only mutated inside compute/remove, which are atomic per conversation
+    private final Map<UUID, Map<UUID, V>> pending = new ConcurrentHashMap<>();
+
+    /** Queue an update, combining it with the member's pending one through merge */
+    void put(UUID conversationId, UUID userId, V update, BinaryOperator<V> merge) {
+        pending.compute(conversationId, (id, updates) -> {
+            Map<UUID, V> merged = updates != null ? updates : new HashMap<>();
+            merged.merge(userId, update, merge);
+            return merged;
+        });
+    }
+
+    /** Hand the pending updates of each conversation to the consumer, removing them */
+    void drain(BiConsumer<UUID, Map<UUID, V>> consumer) {
+        for (UUID conversationId : pending.keySet()) {
+            Map<UUID, V> updates = pending.remove(conversationId);
+            if (updates == null || updates.isEmpty()) continue;
+            consumer.accept(conversationId, updates);
+        }
+    }
+}
@@ -24,6 +24,8 @@ import java.util.UUID;
 public class MemberService {
     MemberRepository memberRepository;
     MemberMapper memberMapper;
+    ReadReceiptBroadcaster readReceiptBroadcaster;
+    UnreadCounterService unreadCounterService;
 
     @Transactional
     public MemberResponse createMember(MemberCreateRequest request) {
@@ -65,13 +67,21 @@ public class MemberService {
         return memberMapper.toMemberResponseList(conversationMembers);
     }
 
+    /**
+     * Advance the user's read watermark in a conversation. Watermarks only move forward,
+     * a future timestamp is capped at now, and a changed watermark is broadcast in the next receipt batch.
+     * @return whether the watermark moved
+     */
     @Transactional
-    public void updateReadAt(UUID conversationId, UUID userId, LocalDateTime readAt) {
-        ConversationMember conversationMember = memberRepository.findAll().stream()
-            .filter(m -> m.getConversationId().equals(conversationId) && m.getUserId().equals(userId))
-            .findFirst()
-            .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "ConversationMember not found"));
-        conversationMember.setReadAt(readAt);
-        memberRepository.save(conversationMember);
+    public boolean updateReadAt(UUID conversationId, UUID userId, LocalDateTime readAt) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime watermark = readAt == null || readAt.isAfter(now) ? now : readAt;
+
+        boolean advanced = memberRepository.advanceReadAt(conversationId, userId, watermark) > 0;
+        if (advanced) {
+            unreadCounterService.watermarkAdvanced(conversationId, userId);
+            readReceiptBroadcaster.submit(conversationId, userId, watermark);
+        }
+        return advanced;
     }
 }
\ No newline at end of file
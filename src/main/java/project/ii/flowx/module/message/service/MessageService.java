@@ -5,20 +5,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 import project.ii.flowx.applications.events.MessageEvent;
-import project.ii.flowx.applications.helper.EntityLookupService;
-import project.ii.flowx.module.auth.service.AuthorizationService;
 import project.ii.flowx.module.message.dto.message.MessageCreateRequest;
 import project.ii.flowx.module.message.dto.message.MessageUpdateRequest;
 import project.ii.flowx.module.message.dto.message.MessageResponse;
+import project.ii.flowx.module.message.dto.message.MessageSearchResponse;
+import project.ii.flowx.module.message.dto.message.SearchCursor;
 import project.ii.flowx.module.message.entity.Message;
-import project.ii.flowx.module.message.entity.Conversation;
-import project.ii.flowx.module.user.entity.User;
 import project.ii.flowx.module.message.repository.MessageRepository;
 import project.ii.flowx.module.message.repository.ConversationRepository;
 import project.ii.flowx.module.message.mapper.MessageMapper;
@@ -26,56 +24,61 @@ import project.ii.flowx.exceptionhandler.FlowXError;
 import project.ii.flowx.exceptionhandler.FlowXException;
 import project.ii.flowx.security.UserPrincipal;
 import project.ii.flowx.applications.enums.MessageStatus;
+import project.ii.flowx.applications.enums.CursorDirection;
+import project.ii.flowx.dto.Cursor;
+import project.ii.flowx.dto.CursorPageResponse;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class MessageService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final String MATCH_START = "\u0002";
+    private static final String MATCH_END = "\u0003";
+
     MessageRepository messageRepository;
     ConversationRepository conversationRepository;
     MessageMapper messageMapper;
-    SimpMessagingTemplate messagingTemplate;
-    EntityLookupService entityLookupService;
-    AuthorizationService authorizationService;
+    MessageTailCache messageTailCache;
+    MemberService memberService;
+    UnreadCounterService unreadCounterService;
+    ConversationService conversationService;
     ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Membership is checked by the pre-authorization exists query, so the conversation is only
+     * referenced by id and nothing besides the message row is loaded. Clients are notified after commit.
+     */
     @Transactional
     @PreAuthorize("@authorize.canSendMessageToConversation(#request.conversationId)")
     public MessageResponse createMessage(MessageCreateRequest request) {
-        log.info("Creating message for conversation: {}", request.getConversationId());
-        
         UUID userId = getUserId();
-        User sender = entityLookupService.getUserById(userId);
-        Conversation conversation = conversationRepository.findById(request.getConversationId())
-                .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Conversation not found"));
+        UUID conversationId = request.getConversationId();
 
         Message message = messageMapper.toMessage(request);
-        message.setSender(sender);
-        message.setConversation(conversation);
+        message.setSenderId(userId);
+        message.setConversation(conversationRepository.getReferenceById(conversationId));
         message.setStatus(MessageStatus.SENT);
-        
-        message = messageRepository.save(message);
-        log.info("Message created with ID: {}", message.getId());
+        // Flush so that the INSERT fills createdAt, which the inbox and the tail cache are keyed by
+        message = messageRepository.saveAndFlush(message);
+        log.debug("Message {} created in conversation {}", message.getId(), conversationId);
 
-        // Publish message created event
-        eventPublisher.publishEvent(new MessageEvent.MessageCreatedEvent(
-            message.getId(),
-            message.getSender().getId(),
-            message.getConversation().getId(),
-            message.getContent()
-        ));
+        conversationService.recordLastMessage(conversationId, message.getId(), userId,
+                message.getContent(), message.getCreatedAt());
+        unreadCounterService.messageCreated(conversationId, userId);
 
-        // Broadcast the new message to the conversation topic
         MessageResponse response = messageMapper.toMessageResponse(message);
-        messagingTemplate.convertAndSend("/topic/conversation/" + 
-            conversation.getId(), response);
-        
+        messageTailCache.append(response);
+        eventPublisher.publishEvent(new MessageEvent.MessageCreatedEvent(response));
         return response;
     }
 
@@ -92,30 +95,115 @@ public class MessageService {
         
         log.info("Message updated: {}", id);
 
-        // Broadcast the updated message to the conversation topic
         MessageResponse response = messageMapper.toMessageResponse(message);
-        messagingTemplate.convertAndSend("/topic/conversation/" + 
-            message.getConversation().getId() + "/update", response);
+        messageTailCache.replace(response);
+        conversationService.refreshLastMessagePreview(message.getConversation().getId(), id, message.getContent());
+        eventPublisher.publishEvent(new MessageEvent.MessageUpdatedEvent(response));
         
         return response;
     }
 
+    /**
+     * One page of a conversation's history, returned oldest first.
+     * BEFORE walks back from the latest message (or from the cursor), AFTER walks forward from the cursor.
+     */
     @Transactional(readOnly = true)
     @PreAuthorize("@authorize.canViewConversation(#conversationId)")
-    public List<MessageResponse> getMessagesByConversation(UUID conversationId) {
-        log.info("Getting messages for conversation: {}", conversationId);
-        
-        // Verify conversation exists
-        conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Conversation not found"));
-
-        List<Message> messages = messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
-        List<MessageResponse> responses = messages.stream()
-                .map(messageMapper::toMessageResponse)
-                .collect(Collectors.toList());
-        
-        log.info("Retrieved {} messages for conversation: {}", responses.size(), conversationId);
-        return responses;
+    public CursorPageResponse<MessageResponse> getMessagesByConversation(UUID conversationId, String cursor,
+                                                                         CursorDirection direction, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        Cursor position = Cursor.decode(cursor);
+        boolean backward = direction != CursorDirection.AFTER;
+
+        // The latest page of an active conversation is served from the tail cache
+        if (position == null && backward && pageSize <= messageTailCache.getCapacity()) {
+            List<MessageResponse> tail = messageTailCache.getTail(conversationId);
+            // Entries without a timestamp cannot produce a cursor, read such a tail from the database instead
+            if (!tail.isEmpty() && tail.stream().allMatch(message -> message.getCreatedAt() != null))
+                return latestPageFromTail(tail, pageSize);
+        }
+
+        if (!conversationRepository.existsById(conversationId))
+            throw new FlowXException(FlowXError.NOT_FOUND, "Conversation not found");
+
+        // Fetch one extra row to learn whether another page exists without counting
+        int fetchSize = pageSize + 1;
+        List<Message> messages;
+        if (position == null) {
+            messages = backward
+                    ? messageRepository.findLatestPage(conversationId, fetchSize)
+                    : messageRepository.findOldestPage(conversationId, fetchSize);
+        } else {
+            messages = backward
+                    ? messageRepository.findPageBefore(conversationId, position.timestamp(), position.id(), fetchSize)
+                    : messageRepository.findPageAfter(conversationId, position.timestamp(), position.id(), fetchSize);
+        }
+
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) messages = messages.subList(0, pageSize);
+
+        // The last fetched row is the furthest one in the walking direction
+        String nextCursor = hasMore
+                ? new Cursor(messages.getLast().getCreatedAt(), messages.getLast().getId()).encode()
+                : null;
+
+        List<MessageResponse> responses = new ArrayList<>(messageMapper.toMessageResponseList(messages));
+        if (backward) Collections.reverse(responses);
+
+        log.debug("Retrieved {} messages for conversation: {}", responses.size(), conversationId);
+        return new CursorPageResponse<>(responses, nextCursor, hasMore);
+    }
+
+    private CursorPageResponse<MessageResponse> latestPageFromTail(List<MessageResponse> tail, int pageSize) {
+        // The tail holds one entry more than a full page whenever older history exists
+        boolean hasMore = tail.size() > pageSize;
+        List<MessageResponse> page = hasMore ? tail.subList(tail.size() - pageSize, tail.size()) : tail;
+        String nextCursor = hasMore
+                ? new Cursor(page.getFirst().getCreatedAt(), page.getFirst().getId()).encode()
+                : null;
+        return new CursorPageResponse<>(new ArrayList<>(page), nextCursor, hasMore);
+    }
+
+    /**
+     * Full-text search over the messages of the current user's conversations, optionally within one of them.
+     * Results are ranked by relevance, paged by (rank, id) and carry highlighted snippets.
+     * The membership join scopes the search, so no conversation is visible that the user could not open.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MessageSearchResponse> searchMessages(String query, UUID conversationId,
+                                                                    String cursor, int limit) {
+        if (query == null || query.isBlank())
+            throw new FlowXException(FlowXError.BAD_REQUEST, "Search query must not be blank");
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH)
+            throw new FlowXException(FlowXError.BAD_REQUEST, "Search query is too long");
+
+        int pageSize = Math.clamp(limit, 1, MAX_SEARCH_PAGE_SIZE);
+        SearchCursor position = SearchCursor.decode(cursor);
+        UUID userId = getUserId();
+
+        List<MessageRepository.SearchHit> hits = conversationId == null
+                ? messageRepository.searchForMember(userId, query.strip(), position.rank(), position.id(), pageSize + 1)
+                : messageRepository.searchForMemberInConversation(userId, conversationId, query.strip(),
+                        position.rank(), position.id(), pageSize + 1);
+
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) hits = hits.subList(0, pageSize);
+        String nextCursor = hasMore
+                ? new SearchCursor(hits.getLast().getRank(), hits.getLast().getId()).encode()
+                : null;
+
+        List<MessageSearchResponse> results = hits.stream()
+                .map(hit -> new MessageSearchResponse(hit.getId(), hit.getConversationId(), hit.getSenderId(),
+                        hit.getCreatedAt(), highlight(hit.getSnippet()), hit.getRank()))
+                .toList();
+        log.debug("Search by user {} returned {} messages", userId, results.size());
+        return new CursorPageResponse<>(results, nextCursor, hasMore);
+    }
+
+    /** Escape the user content of a snippet, then turn the match delimiters into mark tags */
+    private static String highlight(String snippet) {
+        if (snippet == null) return null;
+        return HtmlUtils.htmlEscape(snippet).replace(MATCH_START, "<mark>").replace(MATCH_END, "</mark>");
     }
 
     @Transactional
@@ -131,37 +219,41 @@ public class MessageService {
         messageRepository.save(message);
         
         log.info("Message soft deleted: {}", id);
+        messageTailCache.remove(message.getConversation().getId(), id);
+        unreadCounterService.messageDeleted(message.getConversation().getId(), message.getSenderId());
+        conversationService.refreshLastMessagePreview(message.getConversation().getId(), id, null);
 
-        // Broadcast deletion event to the conversation topic
-        messagingTemplate.convertAndSend("/topic/conversation/" + 
-            message.getConversation().getId() + "/delete", id);
+        eventPublisher.publishEvent(new MessageEvent.MessageDeletedEvent(
+            id, message.getSenderId(), message.getConversation().getId()));
     }
 
+    /**
+     * Mark everything up to and including this message as read by advancing the member's watermark
+     */
     @Transactional
     @PreAuthorize("@authorize.canViewMessage(#id)")
     public void markAsRead(UUID id) {
-        log.info("Marking message as read: {}", id);
-        
         Message message = messageRepository.findById(id)
                 .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "Message not found"));
-        
-        // Only mark as read if not already read and user is not the sender
+
         UUID currentUserId = getUserId();
-        if (!message.getSender().getId().equals(currentUserId) && 
-            message.getStatus() != MessageStatus.READ) {
-            
-            message.setStatus(MessageStatus.READ);
-            messageRepository.save(message);
-            
-            log.info("Message marked as read: {}", id);
-
-            // Broadcast read status to conversation
-            messagingTemplate.convertAndSend("/topic/conversation/" + 
-                message.getConversation().getId() + "/read", 
-                Map.of("messageId", id, "readBy", currentUserId));
+        if (memberService.updateReadAt(message.getConversation().getId(), currentUserId, message.getCreatedAt())) {
+            log.debug("Read watermark of user {} moved to message {}", currentUserId, id);
         }
     }
 
+    @Transactional(readOnly = true)
+    @PreAuthorize("@authorize.canViewConversation(#conversationId)")
+    public long getUnreadCount(UUID conversationId) {
+        return unreadCounterService.getUnreadCounts(getUserId()).getOrDefault(conversationId, 0L);
+    }
+
+    /** Unread count of every conversation the current user belongs to, keyed by conversation id */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getMyUnreadCounts() {
+        return unreadCounterService.getUnreadCounts(getUserId());
+    }
+
     @Transactional(readOnly = true)
     @PreAuthorize("@authorize.canViewMessage(#id)")
     public MessageResponse getMessage(UUID id) {
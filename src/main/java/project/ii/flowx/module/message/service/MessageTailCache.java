@@ -0,0 +1,266 @@
+package project.ii.flowx.module.message.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import project.ii.flowx.applications.helper.AfterCommit;
+import project.ii.flowx.applications.helper.RedisScripts;
+import project.ii.flowx.module.message.dto.message.MessageResponse;
+import project.ii.flowx.module.message.mapper.MessageMapper;
+import project.ii.flowx.module.message.repository.MessageRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The most recent messages of active conversations, oldest first.
+ * Each node keeps a bounded Caffeine copy in front of a Redis list shared by all nodes;
+ * writes go to Redis after commit and every node drops its local copy through pub/sub.
+ * A tail shorter than its capacity holds the whole conversation history.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MessageTailCache {
+    private static final String TAIL_PREFIX = "conversation_tail:";
+    private static final String VERSION_PREFIX = "conversation_tail_version:";
+    private static final String INVALIDATION_CHANNEL = "conversation_tail_invalidation";
+
+    private static final RedisScript<Long> POPULATE_SCRIPT = RedisScripts.load("redis/conversation_tail_populate.lua");
+    private static final RedisScript<Long> APPEND_SCRIPT = RedisScripts.load("redis/conversation_tail_append.lua");
+    private static final RedisScript<Long> REPLACE_SCRIPT = RedisScripts.load("redis/conversation_tail_replace.lua");
+
+    MessageRepository messageRepository;
+    MessageMapper messageMapper;
+    StringRedisTemplate redisTemplate;
+    RedisMessageListenerContainer listenerContainer;
+    ObjectMapper objectMapper;
+    MeterRegistry meterRegistry;
+
+    // Bumped on every invalidation, so a read racing with one does not repopulate the local copy
+    AtomicLong invalidations = new AtomicLong();
+
+    @NonFinal
+    @Value("${app.message-tail.capacity:50}")
+    int capacity;
+
+    @NonFinal
+    @Value("${app.message-tail.max-conversations:1000}")
+    int maxConversations;
+
+    @NonFinal
+    @Value("${app.message-tail.idle-minutes:10}")
+    long idleMinutes;
+
+    @NonFinal
+    @Value("${app.message-tail.redis-ttl-minutes:60}")
+    long redisTtlMinutes;
+
+    @NonFinal
+    Cache<UUID, List<MessageResponse>> tails;
+
+    @NonFinal
+    Counter redisLoads;
+
+    @NonFinal
+    Counter databaseLoads;
+
+    @PostConstruct
+    public void init() {
+        this.tails = Caffeine.newBuilder()
+                .maximumSize(maxConversations)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tails, "message_tail");
+        this.redisLoads = loads("redis");
+        this.databaseLoads = loads("database");
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                applyInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Up to capacity + 1 latest non-deleted messages, oldest first.
+     * The extra entry tells a caller asking for a full page whether older history exists.
+     */
+    public List<MessageResponse> getTail(UUID conversationId) {
+        List<MessageResponse> tail = tails.getIfPresent(conversationId);
+        if (tail != null) return tail;
+
+        long observed = invalidations.get();
+        tail = loadTail(conversationId);
+        if (invalidations.get() == observed) {
+            tails.put(conversationId, tail);
+        }
+        return tail;
+    }
+
+    /**
+     * Append a newly created message once the current transaction commits.
+     * Only persisted messages carry the createdAt the tail is ordered and paged by; anything else drops the tail.
+     */
+    public void append(MessageResponse message) {
+        if (message.getCreatedAt() == null) {
+            log.warn("Message {} has no creation time, dropping tail of conversation {}",
+                    message.getId(), message.getConversationId());
+            evict(message.getConversationId());
+            return;
+        }
+        afterCommit(() -> {
+            redisTemplate.execute(APPEND_SCRIPT, keys(message.getConversationId()),
+                    serialize(message), String.valueOf(capacity + 1), ttlMillis());
+            publish(message.getConversationId());
+        });
+    }
+
+    /** Replace an edited message once the current transaction commits */
+    public void replace(MessageResponse message) {
+        afterCommit(() -> {
+            redisTemplate.execute(REPLACE_SCRIPT, keys(message.getConversationId()),
+                    message.getId().toString(), serialize(message), String.valueOf(capacity + 1), ttlMillis());
+            publish(message.getConversationId());
+        });
+    }
+
+    /** Drop a deleted message once the current transaction commits */
+    public void remove(UUID conversationId, UUID messageId) {
+        afterCommit(() -> {
+            redisTemplate.execute(REPLACE_SCRIPT, keys(conversationId),
+                    messageId.toString(), "", String.valueOf(capacity + 1), ttlMillis());
+            publish(conversationId);
+        });
+    }
+
+    /** Drop a conversation's tail everywhere once the current transaction commits */
+    public void evict(UUID conversationId) {
+        afterCommit(() -> {
+            // Bump the version first so that a populate racing this eviction is rejected
+            redisTemplate.opsForValue().increment(VERSION_PREFIX + conversationId);
+            redisTemplate.delete(TAIL_PREFIX + conversationId);
+            publish(conversationId);
+        });
+    }
+
+    private List<MessageResponse> loadTail(UUID conversationId) {
+        String tailKey = TAIL_PREFIX + conversationId;
+        String versionKey = VERSION_PREFIX + conversationId;
+        try {
+            List<String> cached = redisTemplate.opsForList().range(tailKey, 0, -1);
+            if (cached != null && !cached.isEmpty()) {
+                redisLoads.increment();
+                return deserialize(cached);
+            }
+        } catch (Exception e) {
+            log.error("Failed to read conversation tail {} from Redis: {}", conversationId, e.getMessage(), e);
+        }
+
+        // Read the version before the database so a write committed in between keeps Redis untouched
+        String version = null;
+        try {
+            version = redisTemplate.opsForValue().get(versionKey);
+        } catch (Exception e) {
+            log.error("Failed to read conversation tail version {}: {}", conversationId, e.getMessage(), e);
+        }
+
+        databaseLoads.increment();
+        List<MessageResponse> tail = new ArrayList<>(messageMapper.toMessageResponseList(
+                messageRepository.findLatestPage(conversationId, capacity + 1)));
+        tail = tail.reversed();
+
+        if (!tail.isEmpty()) {
+            try {
+                List<String> args = new ArrayList<>(tail.size() + 2);
+                args.add(version != null ? version : "0");
+                args.add(ttlMillis());
+                for (MessageResponse message : tail) args.add(serialize(message));
+                redisTemplate.execute(POPULATE_SCRIPT, List.of(tailKey, versionKey), args.toArray());
+            } catch (Exception e) {
+                log.error("Failed to store conversation tail {} in Redis: {}", conversationId, e.getMessage(), e);
+            }
+        }
+        return List.copyOf(tail);
+    }
+
+    private List<MessageResponse> deserialize(List<String> entries) throws JsonProcessingException {
+        List<MessageResponse> messages = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            messages.add(objectMapper.readValue(entry, MessageResponse.class));
+        }
+        return List.copyOf(messages);
+    }
+
+    private String serialize(MessageResponse message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize message " + message.getId(), e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable guarded = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("Failed to update conversation tail: {}", e.getMessage(), e);
+            }
+        };
+        AfterCommit.run(guarded);
+    }
+
+    private void publish(UUID conversationId) {
+        applyInvalidation(conversationId.toString());
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, conversationId.toString());
+    }
+
+    private void applyInvalidation(String conversationId) {
+        invalidations.incrementAndGet();
+        try {
+            tails.invalidate(UUID.fromString(conversationId));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed conversation tail invalidation: {}", conversationId);
+        }
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(Duration.ofMinutes(redisTtlMinutes).toMillis());
+    }
+
+    private Counter loads(String source) {
+        return Counter.builder("flowx.message_tail.loads")
+                .description("Conversation tails loaded into the local cache, by source")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private static List<String> keys(UUID conversationId) {
+        return List.of(TAIL_PREFIX + conversationId, VERSION_PREFIX + conversationId);
+    }
+}
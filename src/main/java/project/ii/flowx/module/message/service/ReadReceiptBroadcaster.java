@@ -0,0 +1,49 @@
+package project.ii.flowx.module.message.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project.ii.flowx.applications.helper.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Coalesces read watermark changes and sends one frame per conversation per debounce window
+ * to /topic/conversation/{id}/read, carrying the latest watermark of each member that moved.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReadReceiptBroadcaster {
+    SimpMessagingTemplate messagingTemplate;
+
+    ConversationUpdateCoalescer<LocalDateTime> pending = new ConversationUpdateCoalescer<>();
+
+    public record ReadReceipt(UUID userId, LocalDateTime readAt) { }
+
+    /** Queue a receipt once the current transaction commits */
+    public void submit(UUID conversationId, UUID userId, LocalDateTime readAt) {
+        AfterCommit.run(() -> pending.put(conversationId, userId, readAt, (a, b) -> a.isAfter(b) ? a : b));
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-receipts.debounce-ms:500}")
+    public void flush() {
+        pending.drain((conversationId, receipts) -> {
+            List<ReadReceipt> payload = new ArrayList<>(receipts.size());
+            receipts.forEach((userId, readAt) -> payload.add(new ReadReceipt(userId, readAt)));
+            try {
+                messagingTemplate.convertAndSend("/topic/conversation/" + conversationId + "/read", payload);
+            } catch (Exception e) {
+                log.error("Failed to broadcast read receipts for conversation {}: {}", conversationId, e.getMessage(), e);
+            }
+        });
+    }
+}
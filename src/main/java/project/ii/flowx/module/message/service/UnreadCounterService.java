@@ -0,0 +1,214 @@
+package project.ii.flowx.module.message.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import project.ii.flowx.applications.helper.AfterCommit;
+import project.ii.flowx.applications.helper.RedisScripts;
+import project.ii.flowx.module.message.repository.MemberRepository;
+import project.ii.flowx.module.message.repository.MessageRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Materialized unread counts per (user, conversation), kept in a Redis hash per user.
+ * A hash is built from the database on first read, incremented when messages are created,
+ * recomputed for one conversation when the read watermark moves, dropped when a message is deleted,
+ * and repaired by {@link #reconcile}.
+ * Every change bumps a per-user version; a count read from the database is only stored when
+ * the version it was read under is still current, so a racing increment is never overwritten.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UnreadCounterService {
+    private static final String UNREAD_PREFIX = "unread:";
+    private static final String VERSION_PREFIX = "unread_version:";
+    private static final String RECONCILE_CURSOR_KEY = "sweeper:unread_cursor";
+
+    private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScripts.load("redis/unread_increment.lua");
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScripts.load("redis/unread_store.lua");
+    private static final RedisScript<Long> SET_SCRIPT = RedisScripts.load("redis/unread_set.lua");
+    private static final RedisScript<Long> DROP_SCRIPT = RedisScripts.load("redis/unread_drop.lua");
+    private static final RedisScript<List<Object>> SCAN_SCRIPT = RedisScripts.loadList("redis/unread_scan.lua");
+
+    MessageRepository messageRepository;
+    MemberRepository memberRepository;
+    StringRedisTemplate redisTemplate;
+
+    @NonFinal
+    @Value("${app.unread.ttl-hours:24}")
+    long ttlHours;
+
+    public record ReconcileResult(int usersRepaired, boolean passCompleted) { }
+
+    /** Unread count of every conversation the user belongs to, from Redis when materialized */
+    public Map<UUID, Long> getUnreadCounts(UUID userId) {
+        String key = UNREAD_PREFIX + userId;
+        try {
+            Map<Object, Object> cached = redisTemplate.opsForHash().entries(key);
+            if (!cached.isEmpty()) {
+                Map<UUID, Long> counts = new HashMap<>(cached.size());
+                cached.forEach((conversationId, unread) ->
+                        counts.put(UUID.fromString((String) conversationId), Long.parseLong((String) unread)));
+                return counts;
+            }
+        } catch (Exception e) {
+            log.error("Failed to read unread counters of user {}: {}", userId, e.getMessage(), e);
+        }
+        return materialize(userId);
+    }
+
+    /** Count a new message as unread for every other member once the current transaction commits */
+    public void messageCreated(UUID conversationId, UUID senderId) {
+        List<String> keys = memberRepository.findUserIdsByConversationId(conversationId).stream()
+                .filter(userId -> !userId.equals(senderId))
+                .flatMap(userId -> Stream.of(UNREAD_PREFIX + userId, VERSION_PREFIX + userId))
+                .toList();
+        if (keys.isEmpty()) return;
+        afterCommit(() -> redisTemplate.execute(INCREMENT_SCRIPT, keys, conversationId.toString(), ttlMillis()));
+    }
+
+    /**
+     * Drop the counters of every other member once the transaction that deleted a message commits.
+     * Deleted messages are not counted, and the hashes are rebuilt from the database on the next read.
+     */
+    public void messageDeleted(UUID conversationId, UUID senderId) {
+        List<String> keys = memberRepository.findUserIdsByConversationId(conversationId).stream()
+                .filter(userId -> !userId.equals(senderId))
+                .flatMap(userId -> Stream.of(UNREAD_PREFIX + userId, VERSION_PREFIX + userId))
+                .toList();
+        if (keys.isEmpty()) return;
+        afterCommit(() -> redisTemplate.execute(DROP_SCRIPT, keys, ttlMillis()));
+    }
+
+    /** Recompute one conversation's counter once the transaction that moved the read watermark commits */
+    public void watermarkAdvanced(UUID conversationId, UUID userId) {
+        List<String> keys = List.of(UNREAD_PREFIX + userId, VERSION_PREFIX + userId);
+        String version;
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(keys.getFirst()))) return;
+            // Read the version before counting so a message committed in between drops the hash instead
+            version = currentVersion(keys.getLast());
+        } catch (Exception e) {
+            log.error("Failed to check unread counters of user {}: {}", userId, e.getMessage(), e);
+            return;
+        }
+        // Counted inside the transaction, which already sees the new watermark
+        long unread = messageRepository.countUnreadForMember(conversationId, userId);
+        afterCommit(() -> redisTemplate.execute(SET_SCRIPT, keys,
+                version, conversationId.toString(), Long.toString(unread), ttlMillis()));
+    }
+
+    /**
+     * Rebuild the materialized hashes of one batch of users from the database.
+     * Consecutive calls walk the whole keyspace; the scan position is kept in Redis.
+     */
+    public ReconcileResult reconcile(int batchSize) {
+        List<Object> step = redisTemplate.execute(SCAN_SCRIPT, List.of(RECONCILE_CURSOR_KEY),
+                UNREAD_PREFIX + "*", String.valueOf(batchSize));
+        if (step == null || step.isEmpty()) return new ReconcileResult(0, true);
+
+        int repaired = 0;
+        for (Object key : step.subList(1, step.size())) {
+            String hashKey = String.valueOf(key);
+            try {
+                UUID userId = UUID.fromString(hashKey.substring(UNREAD_PREFIX.length()));
+                if (repair(hashKey, userId)) repaired++;
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unexpected unread counter key {}", hashKey);
+            }
+        }
+        return new ReconcileResult(repaired, ((Number) step.getFirst()).longValue() == 1L);
+    }
+
+    private boolean repair(String key, UUID userId) {
+        String version = currentVersion(VERSION_PREFIX + userId);
+        Map<String, String> expected = loadCounts(userId);
+        Map<Object, Object> actual = redisTemplate.opsForHash().entries(key);
+        if (actual.equals(expected)) return false;
+
+        // A change since the version was read is newer than this repair; the next pass looks again
+        if (!store(userId, version, expected)) return false;
+        log.debug("Repaired unread counters of user {}", userId);
+        return true;
+    }
+
+    private Map<UUID, Long> materialize(UUID userId) {
+        // Read the version before the database so an increment committed in between keeps Redis untouched
+        String version = null;
+        try {
+            version = currentVersion(VERSION_PREFIX + userId);
+        } catch (Exception e) {
+            log.error("Failed to read unread counter version of user {}: {}", userId, e.getMessage(), e);
+        }
+
+        Map<String, String> fields = loadCounts(userId);
+        Map<UUID, Long> counts = new HashMap<>(fields.size());
+        fields.forEach((conversationId, unread) -> counts.put(UUID.fromString(conversationId), Long.parseLong(unread)));
+
+        if (version != null && !fields.isEmpty()) {
+            try {
+                store(userId, version, fields);
+            } catch (Exception e) {
+                log.error("Failed to store unread counters of user {}: {}", userId, e.getMessage(), e);
+            }
+        }
+        return counts;
+    }
+
+    /** Replace the user's hash in one step, unless the counters changed after {@code version} was read */
+    private boolean store(UUID userId, String version, Map<String, String> fields) {
+        List<String> args = new ArrayList<>(fields.size() * 2 + 2);
+        args.add(version);
+        args.add(ttlMillis());
+        fields.forEach((conversationId, unread) -> {
+            args.add(conversationId);
+            args.add(unread);
+        });
+        Long stored = redisTemplate.execute(STORE_SCRIPT,
+                List.of(UNREAD_PREFIX + userId, VERSION_PREFIX + userId), args.toArray());
+        return stored != null && stored == 1L;
+    }
+
+    private String currentVersion(String versionKey) {
+        String version = redisTemplate.opsForValue().get(versionKey);
+        return version != null ? version : "0";
+    }
+
+    private Map<String, String> loadCounts(UUID userId) {
+        Map<String, String> fields = new HashMap<>();
+        for (MessageRepository.UnreadCount count : messageRepository.countUnreadByUser(userId)) {
+            fields.put(count.getConversationId().toString(), Long.toString(count.getUnread()));
+        }
+        return fields;
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable guarded = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("Failed to update unread counters: {}", e.getMessage(), e);
+            }
+        };
+        AfterCommit.run(guarded);
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(Duration.ofHours(ttlHours).toMillis());
+    }
+}
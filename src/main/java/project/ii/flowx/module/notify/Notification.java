@@ -4,13 +4,13 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Delivery of a {@link NotificationMessage} to one recipient, holding only that recipient's read state
+ */
 @Getter
 @Setter
 @Entity
@@ -18,7 +18,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
-@Table(name = "notifications")
+@Table(name = "notifications",
+       indexes = {
+           @Index(name = "idx_notification_user_created", columnList = "user_id, created_at, id"),
+           @Index(name = "idx_notification_message", columnList = "message_id")
+       })
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -28,24 +32,18 @@ public class Notification {
     @Column(name = "user_id", nullable = false, updatable = false, columnDefinition = "UUID")
     UUID userId;
 
-    @Column(name = "title", nullable = false, length = 200)
-    String title;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "message_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    NotificationMessage message;
 
-    @Column(name = "content", length = Integer.MAX_VALUE)
-    String content;
-
-    @Column(name = "target", columnDefinition = "jsonb")
-    @JdbcTypeCode(SqlTypes.JSON)
-    String target;
-
-    @Column(name = "is_read")
+    @Column(name = "is_read", nullable = false)
     Boolean isRead;
 
     @CreationTimestamp
     @Column(name = "created_at")
     LocalDateTime createdAt;
 
-    @UpdateTimestamp
     @Column(name = "read_at")
     LocalDateTime readAt;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package project.ii.flowx.module.notify;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,8 +11,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import project.ii.flowx.dto.Response;
-import project.ii.flowx.dto.PageResponse;
-import project.ii.flowx.module.notify.dto.NotificationResponse;
+import project.ii.flowx.module.notify.dto.NotificationFeedResponse;
 
 import java.util.UUID;
 
@@ -28,24 +28,50 @@ public class NotificationController {
 
     @Operation(
             summary = "Get my notifications",
-            description = "Retrieves a list of all notifications for the current user.",
+            description = "Retrieves one page of the current user's notifications, newest first, " +
+                    "with the unread count of the whole feed. Pass nextCursor back to load older notifications.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "List of notifications retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor"
                     )
             }
     )
     @GetMapping("/my-notifications")
-    public Response<PageResponse<NotificationResponse>> getMyNotifications(@RequestParam int page) {
+    public Response<NotificationFeedResponse> getMyNotifications(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 50") @RequestParam(defaultValue = "20") int limit) {
         log.info("Retrieving notifications for the current user");
-        return Response.<PageResponse<NotificationResponse>>builder()
-                .data(notificationService.getMyNotifications(page))
+        return Response.<NotificationFeedResponse>builder()
+                .data(notificationService.getMyNotifications(cursor, limit))
                 .message("Notifications retrieved successfully")
                 .code(200)
                 .build();
     }
 
+    @Operation(
+            summary = "Get my unread notification count",
+            description = "Returns how many of the current user's notifications are unread.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Unread count retrieved successfully"
+                    )
+            }
+    )
+    @GetMapping("/unread-count")
+    public Response<Long> getMyUnreadCount() {
+        return Response.<Long>builder()
+                .data(notificationService.getMyUnreadCount())
+                .message("Unread count retrieved successfully")
+                .code(200)
+                .build();
+    }
+
     @Operation(
             summary = "Mark notification as read",
             description = "Marks a specific notification as read.",
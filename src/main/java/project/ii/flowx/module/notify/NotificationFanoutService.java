@@ -0,0 +1,96 @@
+package project.ii.flowx.module.notify;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project.ii.flowx.applications.helper.AfterCommit;
+import project.ii.flowx.module.notify.dto.NotificationCreateRequest;
+import project.ii.flowx.module.notify.dto.NotificationResponse;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delivers one notification to a set of recipients.
+ * The text and target are written once as a shared message, the per-recipient delivery rows
+ * with JDBC batch inserts, and the WebSocket frames are sent only after the rows are committed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationFanoutService {
+    private static final String INSERT_MESSAGE_SQL = "INSERT INTO notification_messages (id, title, content, target, created_at) " +
+            "VALUES (?, ?, ?, CAST(? AS jsonb), ?)";
+    private static final String INSERT_DELIVERY_SQL = "INSERT INTO notifications (id, user_id, message_id, is_read, created_at) " +
+            "VALUES (?, ?, ?, false, ?)";
+
+    JdbcTemplate jdbcTemplate;
+    NotificationMapper notificationMapper;
+    SimpMessagingTemplate messagingTemplate;
+    NotificationUnreadCountService notificationUnreadCountService;
+
+    @NonFinal
+    @Value("${app.notification.batch-size:500}")
+    int batchSize;
+
+    /**
+     * Notify every recipient once, the userId of the request is ignored.
+     * Returns the number of notifications written.
+     */
+    @Transactional
+    public int fanout(NotificationCreateRequest notification, Collection<UUID> recipients) {
+        List<UUID> userIds = new ArrayList<>(new LinkedHashSet<>(recipients));
+        if (userIds.isEmpty()) return 0;
+
+        String target = notificationMapper.notificationTargetToJson(notification.getTarget());
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<NotificationResponse> responses = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            responses.add(new NotificationResponse(UUID.randomUUID(), notification.getTitle(), notification.getContent(),
+                    notification.getTarget(), false, createdAt, null));
+        }
+
+        UUID messageId = UUID.randomUUID();
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update(INSERT_MESSAGE_SQL, messageId, notification.getTitle(), notification.getContent(), target, timestamp);
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, userIds.size());
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                rows.add(new Object[]{responses.get(i).getId(), userIds.get(i), messageId, timestamp});
+            }
+            jdbcTemplate.batchUpdate(INSERT_DELIVERY_SQL, rows);
+        }
+        log.debug("Wrote notification \"{}\" for {} recipients", notification.getTitle(), userIds.size());
+
+        notificationUnreadCountService.evict(userIds);
+        AfterCommit.run(() -> publish(userIds, responses));
+        return userIds.size();
+    }
+
+    private void publish(List<UUID> userIds, List<NotificationResponse> responses) {
+        int failed = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            try {
+                messagingTemplate.convertAndSend("/topic/notifications/" + userIds.get(i), responses.get(i));
+            } catch (Exception e) {
+                failed++;
+                log.debug("Failed to send notification to user {}: {}", userIds.get(i), e.getMessage());
+            }
+        }
+        if (failed > 0) log.error("Failed to send {} of {} notification frames", failed, userIds.size());
+    }
+}
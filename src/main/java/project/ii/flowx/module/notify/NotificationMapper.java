@@ -1,11 +1,8 @@
 package project.ii.flowx.module.notify;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
-import project.ii.flowx.module.notify.dto.NotificationCreateRequest;
 import project.ii.flowx.module.notify.dto.NotificationResponse;
 import project.ii.flowx.module.notify.dto.NotificationTarget;
 
@@ -20,61 +17,32 @@ import java.util.List;
 public interface NotificationMapper {
 
     /**
-     * Convert Notification entity to NotificationResponse DTO
+     * Convert a delivery and its shared message to NotificationResponse DTO
      * Deserializes JSON target field to NotificationTarget object
      */
-    @Mapping(target = "target", source = "target", qualifiedByName = "jsonToNotificationTarget")
+    @Mapping(target = "title", source = "message.title")
+    @Mapping(target = "content", source = "message.content")
+    @Mapping(target = "target", source = "message.target", qualifiedByName = "jsonToNotificationTarget")
     NotificationResponse toNotificationResponse(Notification notification);
 
-    /**
-     * Convert NotificationCreateRequest to Notification entity
-     * Serializes NotificationTarget object to JSON and ignores system-managed fields
-     */
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "createdAt", ignore = true)
-    @Mapping(target = "readAt", ignore = true)
-    @Mapping(target = "isRead", ignore = true) // Will be set to false by service
-    @Mapping(target = "target", source = "target", qualifiedByName = "notificationTargetToJson")
-    Notification toNotification(NotificationCreateRequest notificationCreateRequest);
-
     /**
      * Convert list of Notification entities to list of NotificationResponse DTOs
      */
     List<NotificationResponse> toNotificationResponseList(List<Notification> notifications);
 
     /**
-     * Serialize NotificationTarget object to JSON string
-     * Handles null values gracefully and provides error handling
+     * Serialize NotificationTarget object to JSON string with the shared codec
      */
     @Named("notificationTargetToJson")
     default String notificationTargetToJson(NotificationTarget target) {
-        if (target == null) {
-            return null;
-        }
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.findAndRegisterModules(); // Support for Java time types
-            return mapper.writeValueAsString(target);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error serializing NotificationTarget to JSON: " + e.getMessage(), e);
-        }
+        return NotificationTargetCodec.toJson(target);
     }
 
     /**
-     * Deserialize JSON string to NotificationTarget object
-     * Handles null values gracefully and provides error handling
+     * Deserialize JSON string to NotificationTarget object with the shared codec
      */
     @Named("jsonToNotificationTarget")
     default NotificationTarget jsonToNotificationTarget(String json) {
-        if (json == null || json.trim().isEmpty()) {
-            return null;
-        }
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.findAndRegisterModules(); // Support for Java time types
-            return mapper.readValue(json, NotificationTarget.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error deserializing JSON to NotificationTarget: " + e.getMessage(), e);
-        }
+        return NotificationTargetCodec.fromJson(json);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package project.ii.flowx.module.notify;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Text and target of a notification, shared by every recipient of one fan-out.
+ * Per-recipient state lives in {@link Notification}.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+@Table(name = "notification_messages")
+public class NotificationMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false, updatable = false, columnDefinition = "UUID")
+    UUID id;
+
+    @Column(name = "title", nullable = false, length = 200)
+    String title;
+
+    @Column(name = "content", length = Integer.MAX_VALUE)
+    String content;
+
+    @Column(name = "target", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    String target;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+}
@@ -1,32 +1,55 @@
 package project.ii.flowx.module.notify;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
-    Page<Notification> findByUserIdOrderByCreatedAtDesc(UUID currentUserId, Pageable pageable);
+    /**
+     * Newest notifications of the user with their shared messages, newest first
+     */
+    @Query("SELECT n FROM Notification n JOIN FETCH n.message WHERE n.userId = :userId " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findLatestPage(@Param("userId") UUID userId, Limit limit);
 
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id")
+    /**
+     * The user's notifications strictly older than the (createdAt, id) cursor, newest first.
+     * The row comparison lets Postgres start the scan of idx_notification_user_created at the cursor.
+     */
+    @Query("SELECT n FROM Notification n JOIN FETCH n.message WHERE n.userId = :userId " +
+            "AND (n.createdAt, n.id) < (:createdAt, :id) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(@Param("userId") UUID userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id,
+                                      Limit limit);
+
+    long countByUserIdAndIsReadFalse(UUID userId);
+
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP " +
+            "WHERE n.id = :id AND n.userId = :userId AND n.isRead = false")
     @Transactional
     @Modifying
-    void markAsReadById(UUID id);
+    int markAsReadById(@Param("id") UUID id, @Param("userId") UUID userId);
 
-    @Query("UPDATE Notification n SET n.isRead = false WHERE n.id = :id")
+    @Query("UPDATE Notification n SET n.isRead = false, n.readAt = null " +
+            "WHERE n.id = :id AND n.userId = :userId AND n.isRead = true")
     @Transactional
     @Modifying
-    void markAsUnreadById(UUID id);
+    int markAsUnreadById(@Param("id") UUID id, @Param("userId") UUID userId);
 
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId")
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.userId = :userId AND n.isRead = false")
     @Transactional
     @Modifying
-    void markAllAsReadByUserId(UUID userId);
+    int markAllAsReadByUserId(UUID userId);
 }
@@ -0,0 +1,173 @@
+package project.ii.flowx.module.notify;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project.ii.flowx.module.notify.dto.NotificationTarget;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the notifications table small. Old read notifications of a user are rolled up into one
+ * digest per day, rows past the retention window move to the monthly partitions of
+ * notifications_archive, and archive partitions past their own window are dropped.
+ * Every step works in bounded batches so that callers can stop between them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationRetentionService {
+    private static final String ARCHIVE_TABLE = "notifications_archive";
+    private static final Pattern PARTITION_NAME = Pattern.compile(ARCHIVE_TABLE + "_y(\\d{4})m(\\d{2})");
+    private static final String NOT_DIGEST = "(m.target IS NULL OR m.target->>'type' IS DISTINCT FROM '"
+            + NotificationTarget.DIGEST_TYPE + "')";
+    private static final String ARCHIVE_COLUMNS = "id, user_id, message_id, is_read, created_at, read_at";
+
+    JdbcTemplate jdbcTemplate;
+    NotificationUnreadCountService notificationUnreadCountService;
+
+    public record DigestGroup(UUID userId, LocalDateTime day, long total, LocalDateTime lastCreatedAt) { }
+
+    /**
+     * Days on which a user has at least minGroupSize read notifications in [from, before), excluding digests
+     */
+    @Transactional(readOnly = true)
+    public List<DigestGroup> findDigestGroups(LocalDateTime from, LocalDateTime before, int minGroupSize, int limit) {
+        return jdbcTemplate.query("SELECT n.user_id, date_trunc('day', n.created_at) AS day, COUNT(*) AS total, " +
+                        "MAX(n.created_at) AS last_created_at " +
+                        "FROM notifications n JOIN notification_messages m ON m.id = n.message_id " +
+                        "WHERE n.is_read = true AND n.created_at >= ? AND n.created_at < ? AND " + NOT_DIGEST + " " +
+                        "GROUP BY n.user_id, date_trunc('day', n.created_at) HAVING COUNT(*) >= ? LIMIT ?",
+                (rs, rowNum) -> new DigestGroup(rs.getObject("user_id", UUID.class),
+                        rs.getTimestamp("day").toLocalDateTime(),
+                        rs.getLong("total"),
+                        rs.getTimestamp("last_created_at").toLocalDateTime()),
+                Timestamp.valueOf(from), Timestamp.valueOf(before), minGroupSize, limit);
+    }
+
+    /**
+     * Archive the read notifications of one group and replace them with a single read digest.
+     * Returns how many notifications were rolled up.
+     */
+    @Transactional
+    public int rollUp(DigestGroup group) {
+        ensurePartition(YearMonth.from(group.day()));
+        LocalDateTime dayEnd = group.day().plusDays(1);
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM notifications n USING notification_messages m " +
+                        "WHERE m.id = n.message_id AND n.user_id = ? AND n.is_read = true " +
+                        "AND n.created_at >= ? AND n.created_at < ? AND " + NOT_DIGEST + " " +
+                        "RETURNING n.id, n.user_id, n.message_id, n.is_read, n.created_at, n.read_at) " +
+                        "INSERT INTO " + ARCHIVE_TABLE + " (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS + " FROM moved",
+                group.userId(), Timestamp.valueOf(group.day()), Timestamp.valueOf(dayEnd));
+        if (moved == 0) return 0;
+
+        UUID messageId = UUID.randomUUID();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String target = NotificationTargetCodec.toJson(NotificationTarget.forDigest(moved, group.day().toLocalDate()));
+        jdbcTemplate.update("INSERT INTO notification_messages (id, title, content, target, created_at) " +
+                        "VALUES (?, ?, ?, CAST(? AS jsonb), ?)",
+                messageId, "Notification digest",
+                String.format("%d notifications from %s", moved, group.day().toLocalDate()), target, now);
+        jdbcTemplate.update("INSERT INTO notifications (id, user_id, message_id, is_read, created_at, read_at) " +
+                        "VALUES (?, ?, ?, true, ?, ?)",
+                UUID.randomUUID(), group.userId(), messageId, Timestamp.valueOf(group.lastCreatedAt()), now);
+        return moved;
+    }
+
+    /**
+     * Move up to batchSize of the oldest notifications created before the cutoff into the archive.
+     * Returns how many rows were moved.
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime before, int batchSize) {
+        // Lock the batch first so that the partitions created below cover exactly the rows that are moved
+        List<UUID> ids = new ArrayList<>();
+        Set<YearMonth> months = new HashSet<>();
+        jdbcTemplate.query("SELECT id, created_at FROM notifications WHERE created_at < ? " +
+                        "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED",
+                rs -> {
+                    ids.add(rs.getObject("id", UUID.class));
+                    months.add(YearMonth.from(rs.getTimestamp("created_at").toLocalDateTime()));
+                },
+                Timestamp.valueOf(before), batchSize);
+        if (ids.isEmpty()) return 0;
+        months.forEach(this::ensurePartition);
+
+        Set<UUID> unreadOwners = new HashSet<>();
+        int[] moved = {0};
+        jdbcTemplate.query(con -> {
+                    PreparedStatement statement = con.prepareStatement("WITH moved AS (DELETE FROM notifications " +
+                            "WHERE id = ANY(?) RETURNING " + ARCHIVE_COLUMNS + ") " +
+                            "INSERT INTO " + ARCHIVE_TABLE + " (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS + " FROM moved " +
+                            "RETURNING user_id, is_read");
+                    statement.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+                    return statement;
+                },
+                rs -> {
+                    moved[0]++;
+                    if (!rs.getBoolean("is_read")) unreadOwners.add(rs.getObject("user_id", UUID.class));
+                });
+
+        // Archived unread notifications no longer count towards the badge
+        notificationUnreadCountService.evict(unreadOwners);
+        return moved[0];
+    }
+
+    /**
+     * Drop the archive partitions whose whole month lies before the cutoff.
+     * Returns how many partitions were dropped.
+     */
+    @Transactional
+    public int dropExpiredPartitions(LocalDateTime before) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ?", String.class, ARCHIVE_TABLE);
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) continue;
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(before)) continue;
+
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            log.info("Dropped notification archive partition {}", partition);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Delete up to batchSize shared messages created before the cutoff that no delivery row references any more
+     */
+    @Transactional
+    public int deleteOrphanMessages(LocalDateTime before, int batchSize) {
+        return jdbcTemplate.update("DELETE FROM notification_messages WHERE id IN (" +
+                        "SELECT m.id FROM notification_messages m WHERE m.created_at < ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.message_id = m.id) " +
+                        "AND NOT EXISTS (SELECT 1 FROM " + ARCHIVE_TABLE + " a WHERE a.message_id = m.id) LIMIT ?)",
+                Timestamp.valueOf(before), batchSize);
+    }
+
+    private void ensurePartition(YearMonth month) {
+        // Built from a YearMonth only, never from user input
+        String partition = String.format("%s_y%04dm%02d", ARCHIVE_TABLE, month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partition, ARCHIVE_TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+}
@@ -5,10 +5,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,11 +13,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import project.ii.flowx.exceptionhandler.FlowXError;
 import project.ii.flowx.exceptionhandler.FlowXException;
-import project.ii.flowx.dto.PageResponse;
+import project.ii.flowx.dto.Cursor;
 import project.ii.flowx.module.notify.dto.NotificationCreateRequest;
-import project.ii.flowx.module.notify.dto.NotificationResponse;
+import project.ii.flowx.module.notify.dto.NotificationFeedResponse;
 import project.ii.flowx.security.UserPrincipal;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,60 +32,78 @@ import java.util.UUID;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @EnableAsync
 public class NotificationService {
+    private static final int MAX_PAGE_SIZE = 50;
+
      NotificationRepository notificationRepository;
      NotificationMapper notificationMapper;
-     SimpMessagingTemplate messagingTemplate;
+     NotificationFanoutService notificationFanoutService;
+     NotificationUnreadCountService notificationUnreadCountService;
 
-    @Transactional()
     public void createNotification(NotificationCreateRequest createRequest) {
-        // Use mapper to convert DTO to entity
-        Notification notification = notificationMapper.toNotification(createRequest);
-        notification.setIsRead(false);
-        
-        Notification savedNotification = notificationRepository.save(notification);
-        NotificationResponse response = notificationMapper.toNotificationResponse(savedNotification);
-
-        // Publish the notification to the user's WebSocket channel
-        String topic = "/topic/notifications/" + createRequest.getUserId();
-        
-        try {
-            messagingTemplate.convertAndSend(topic, response);
-            log.info("Notification sent to WebSocket topic: {}", topic);
-        }
-        catch (Exception e) {
-            log.error("Failed to send notification to WebSocket: {}", e.getMessage(), e);
-        }
+        notificationFanoutService.fanout(createRequest, List.of(createRequest.getUserId()));
+    }
+
+    /**
+     * Send the same notification to every recipient, written in batches and published after commit
+     */
+    public void createNotifications(NotificationCreateRequest createRequest, Collection<UUID> recipients) {
+        notificationFanoutService.fanout(createRequest, recipients);
     }
 
     @Transactional()
     @PreAuthorize("isAuthenticated()")
     public void markAsRead(UUID id) {
-        notificationRepository.markAsReadById(id);
+        UUID currentUserId = getUserId();
+        if (notificationRepository.markAsReadById(id, currentUserId) > 0)
+            notificationUnreadCountService.evict(currentUserId);
     }
 
     @Transactional()
     @PreAuthorize("isAuthenticated()")
     public void markAllAsRead() {
         UUID currentUserId = getUserId();
-        notificationRepository.markAllAsReadByUserId(currentUserId);
+        if (notificationRepository.markAllAsReadByUserId(currentUserId) > 0)
+            notificationUnreadCountService.evict(currentUserId);
     }
 
     @Transactional()
     @PreAuthorize("isAuthenticated()")
     public void markAsUnread(UUID id) {
-        notificationRepository.markAsUnreadById(id);
+        UUID currentUserId = getUserId();
+        if (notificationRepository.markAsUnreadById(id, currentUserId) > 0)
+            notificationUnreadCountService.evict(currentUserId);
     }
 
+    /**
+     * One page of the current user's feed, newest first, keyed by (createdAt, id) so that
+     * deep pages cost the same as the first one. The unread count comes from the cache.
+     */
     @Transactional(readOnly = true)
     @PreAuthorize("isAuthenticated()")
-    public PageResponse<NotificationResponse> getMyNotifications(int page) {
+    public NotificationFeedResponse getMyNotifications(String cursor, int limit) {
         UUID currentUserId = getUserId();
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        Cursor position = Cursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists without counting
+        Limit fetchSize = Limit.of(pageSize + 1);
+        List<Notification> notifications = position == null
+                ? notificationRepository.findLatestPage(currentUserId, fetchSize)
+                : notificationRepository.findPageBefore(currentUserId, position.timestamp(), position.id(), fetchSize);
 
-        Pageable pageable = PageRequest.of(page, 20);
-        Page<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(currentUserId,pageable );
-        Page<NotificationResponse> responsePage = notifications.map(notificationMapper::toNotificationResponse);
+        boolean hasMore = notifications.size() > pageSize;
+        if (hasMore) notifications = notifications.subList(0, pageSize);
+        String nextCursor = hasMore
+                ? new Cursor(notifications.getLast().getCreatedAt(), notifications.getLast().getId()).encode()
+                : null;
 
-        return new PageResponse<>(responsePage);
+        return new NotificationFeedResponse(notificationMapper.toNotificationResponseList(notifications),
+                nextCursor, hasMore, notificationUnreadCountService.getUnreadCount(currentUserId));
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    public long getMyUnreadCount() {
+        return notificationUnreadCountService.getUnreadCount(getUserId());
     }
 
     private UUID getUserId() {
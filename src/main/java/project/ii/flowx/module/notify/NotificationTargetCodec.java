@@ -0,0 +1,39 @@
+package project.ii.flowx.module.notify;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import project.ii.flowx.module.notify.dto.NotificationTarget;
+
+/**
+ * JSON codec for the jsonb target column.
+ * The reader and writer are built once with the same modules the per-call mappers used to register,
+ * so stored targets keep their format; both are immutable and safe to share between threads.
+ */
+public final class NotificationTargetCodec {
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final ObjectReader READER = MAPPER.readerFor(NotificationTarget.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(NotificationTarget.class);
+
+    private NotificationTargetCodec() {
+    }
+
+    public static String toJson(NotificationTarget target) {
+        if (target == null) return null;
+        try {
+            return WRITER.writeValueAsString(target);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing NotificationTarget to JSON: " + e.getMessage(), e);
+        }
+    }
+
+    public static NotificationTarget fromJson(String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            return READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error deserializing JSON to NotificationTarget: " + e.getMessage(), e);
+        }
+    }
+}
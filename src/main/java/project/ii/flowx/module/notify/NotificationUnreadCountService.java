@@ -0,0 +1,91 @@
+package project.ii.flowx.module.notify;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import project.ii.flowx.applications.helper.AfterCommit;
+import project.ii.flowx.applications.helper.RedisScripts;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Unread notification count per user, cached in Redis.
+ * A count is computed from the partial unread index on first read and dropped
+ * once a transaction that changes the user's unread notifications commits.
+ * Every drop bumps a per-user version, and a count is only stored when the version
+ * it was read under is still current, so a stale count never outlives a racing eviction.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationUnreadCountService {
+    private static final String UNREAD_PREFIX = "notification_unread:";
+    private static final String VERSION_PREFIX = "notification_unread_version:";
+
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScripts.load("redis/notification_unread_store.lua");
+    private static final RedisScript<Long> EVICT_SCRIPT = RedisScripts.load("redis/notification_unread_evict.lua");
+
+    NotificationRepository notificationRepository;
+    StringRedisTemplate redisTemplate;
+
+    @NonFinal
+    @Value("${app.notification.unread-ttl-minutes:60}")
+    long ttlMinutes;
+
+    public long getUnreadCount(UUID userId) {
+        List<String> keys = List.of(UNREAD_PREFIX + userId, VERSION_PREFIX + userId);
+        String version = null;
+        try {
+            String cached = redisTemplate.opsForValue().get(keys.getFirst());
+            if (cached != null) return Long.parseLong(cached);
+            // Read the version before the database so an eviction committed in between keeps Redis untouched
+            version = redisTemplate.opsForValue().get(keys.getLast());
+            if (version == null) version = "0";
+        } catch (Exception e) {
+            log.error("Failed to read unread notification count of user {}: {}", userId, e.getMessage(), e);
+        }
+
+        long unread = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        if (version == null) return unread;
+        try {
+            redisTemplate.execute(STORE_SCRIPT, keys, version, Long.toString(unread), ttlMillis());
+        } catch (Exception e) {
+            log.error("Failed to store unread notification count of user {}: {}", userId, e.getMessage(), e);
+        }
+        return unread;
+    }
+
+    /** Drop the cached counts once the current transaction commits */
+    public void evict(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) return;
+        List<String> keys = userIds.stream()
+                .flatMap(userId -> Stream.of(UNREAD_PREFIX + userId, VERSION_PREFIX + userId))
+                .toList();
+        AfterCommit.run(() -> {
+            try {
+                redisTemplate.execute(EVICT_SCRIPT, keys, ttlMillis());
+            } catch (Exception e) {
+                log.error("Failed to evict unread notification counts: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    public void evict(UUID userId) {
+        evict(List.of(userId));
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(Duration.ofMinutes(ttlMinutes).toMillis());
+    }
+}
@@ -0,0 +1,21 @@
+package project.ii.flowx.module.notify.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Schema(description = "One page of the notification feed")
+@FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationFeedResponse {
+    List<NotificationResponse> content;
+    @Schema(description = "Cursor of the next, older page; null when hasMore is false")
+    String nextCursor;
+    boolean hasMore;
+    @Schema(description = "Unread notifications of the current user across the whole feed")
+    long unreadCount;
+}
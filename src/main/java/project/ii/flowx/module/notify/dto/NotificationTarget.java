@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -18,6 +19,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @FieldDefaults(level = lombok.AccessLevel.PRIVATE)
 public class NotificationTarget {
+    public static final String DIGEST_TYPE = "DIGEST";
     
     @Schema(description = "Type of the target entity", example = "TASK")
     String type;
@@ -86,4 +88,15 @@ public class NotificationTarget {
                 .description(projectDescription)
                 .build();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Factory method for creating the target of a digest that replaced older notifications
+     */
+    public static NotificationTarget forDigest(long count, LocalDate day) {
+        return NotificationTarget.builder()
+                .type(DIGEST_TYPE)
+                .title(day.toString())
+                .metadata("{\"count\": " + count + "}")
+                .build();
+    }
+}
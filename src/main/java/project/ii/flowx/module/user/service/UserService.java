@@ -95,6 +95,7 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new FlowXException(FlowXError.NOT_FOUND, "User not found"));
         userRepository.delete(user);
+        entityLookupService.evict(User.class, id);
 
         // publish event
         UserEvent.UserDeletedEvent userDeletedEvent = new UserEvent.UserDeletedEvent(user.getId());
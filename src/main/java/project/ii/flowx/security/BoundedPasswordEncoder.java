@@ -0,0 +1,140 @@
+package project.ii.flowx.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder that runs hashing on a small dedicated pool instead of the calling request thread.
+ * At most {@code threads} hashes run at once and at most {@code queueCapacity} wait;
+ * anything beyond that is rejected immediately with 429 and a Retry-After hint,
+ * so a login burst cannot take the CPU away from every other endpoint.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("flowx.password.hash")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("flowx.password.hash")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("flowx.password.hash.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("flowx.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("flowx.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing requests currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pick the highest BCrypt strength, starting at {@code minStrength}, whose hash time stays within
+     * {@code targetMillis} on this machine. Each step doubles the cost. A target of 0 disables tuning.
+     */
+    public static BCryptPasswordEncoder tunedBCrypt(int minStrength, long targetMillis) {
+        int strength = minStrength;
+        if (targetMillis > 0) {
+            long elapsed = measure(new BCryptPasswordEncoder(strength));
+            while (strength < MAX_BCRYPT_STRENGTH && elapsed * 2 <= targetMillis) {
+                strength++;
+                elapsed *= 2;
+            }
+            log.info("Using BCrypt strength {} for a {} ms hashing target", strength, targetMillis);
+        }
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /** Hashes below the current cost are re-encoded on the next successful login */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            FlowXException exception = new FlowXException(FlowXError.TOO_MANY_REQUESTS,
+                    "Too many sign-in attempts in progress, please retry shortly");
+            exception.setRetryAfterSeconds(retryAfterSeconds);
+            throw exception;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new FlowXException(FlowXError.INTERNAL_SERVER_ERROR, "Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new FlowXException(FlowXError.INTERNAL_SERVER_ERROR, "Password hashing failed");
+        }
+    }
+
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode("calibration"); // warm up
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+    }
+}
@@ -0,0 +1,135 @@
+package project.ii.flowx.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cache of verified bearer tokens, keyed by the SHA-256 digest of the token.
+ * A hit skips signature verification, claim validation and principal construction;
+ * entries never outlive the token's exp claim and revocation is still checked on every hit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationCache {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtDecoderImpl jwtDecoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jwt-cache.max-size:10000}")
+    private int maxSize;
+
+    private Cache<String, CachedAuthentication> cache;
+
+    private record CachedAuthentication(UsernamePasswordAuthenticationToken authentication,
+                                        String jti, Instant expiresAt) { }
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt_authentication");
+    }
+
+    /**
+     * Resolve a bearer token to an authentication, verifying it only on a cache miss
+     * @throws JwtException if the token is invalid, expired or revoked
+     */
+    public UsernamePasswordAuthenticationToken authenticate(String token) throws JwtException {
+        String key = digest(token);
+        CachedAuthentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (tokenRevocationService.isRevoked(cached.jti(), cached.expiresAt())) {
+                cache.invalidate(key);
+                throw new JwtException("Token has been invalidated");
+            }
+            return cached.authentication();
+        }
+
+        Jwt jwt = jwtDecoder.decode(token);
+        UsernamePasswordAuthenticationToken authentication = toAuthentication(jwt);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, new CachedAuthentication(authentication, jwt.getId(), jwt.getExpiresAt()));
+        }
+        return authentication;
+    }
+
+    /** Drop a token from the cache, used on logout */
+    public void evict(String token) {
+        if (StringUtils.hasText(token)) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    private UsernamePasswordAuthenticationToken toAuthentication(Jwt jwt) {
+        UUID userId = UUID.fromString(jwt.getClaimAsString("userId"));
+        String scope = jwt.getClaimAsString("scope");
+
+        List<SimpleGrantedAuthority> authorities = Collections.emptyList();
+        if (StringUtils.hasText(scope)) {
+            authorities = Arrays.stream(scope.split(" "))
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+        }
+
+        UserPrincipal userPrincipal = new UserPrincipal(userId, jwt.getSubject(), null, authorities);
+        return new UsernamePasswordAuthenticationToken(userPrincipal, null, authorities);
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static class TokenExpiry implements Expiry<String, CachedAuthentication> {
+        @Override
+        public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+            return Math.max(Duration.between(Instant.now(), value.expiresAt()).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
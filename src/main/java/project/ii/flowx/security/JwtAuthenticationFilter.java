@@ -8,24 +8,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import project.ii.flowx.applications.logging.AccessLogFilter;
 import project.ii.flowx.dto.Response;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.MediaType;
-import project.ii.flowx.module.auth.repository.InvalidTokenRepository;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Custom JWT authentication filter that validates JWT tokens and sets the authentication in the security context.
@@ -37,8 +30,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final InvalidTokenRepository invalidTokenRepository;
-    private final JwtDecoderImpl jwtDecoder;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -46,32 +38,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NotNull HttpServletResponse response,
                                     @NotNull FilterChain filterChain
     ) throws ServletException, IOException {
-        log.info(request.getRequestURI());
-
         try {
             String jwt = getJwtFromRequest(request);
             if (StringUtils.hasText(jwt)) {
-                // Use FlowXJwtDecoder for token validation and parsing
-                Jwt decodedJWT = jwtDecoder.decode(jwt);
-                
-                String id = decodedJWT.getClaim("userId");
-                UUID uuid = UUID.fromString(id);
-                String email = decodedJWT.getSubject();
-                String scope = decodedJWT.getClaim("scope");
-                UserPrincipal userDetails = new UserPrincipal(uuid, email, null, Collections.emptyList());
-
-                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-
-                if (StringUtils.hasText(scope)) {
-                    authorities = Arrays.stream(scope.split(" "))
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
-                }
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-
+                UsernamePasswordAuthenticationToken authentication = jwtAuthenticationCache.authenticate(jwt);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal)
+                    request.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, userPrincipal.getId());
             }
         } catch (JwtException ex) {
             log.error("JWT verification failed: {}", ex.getMessage());
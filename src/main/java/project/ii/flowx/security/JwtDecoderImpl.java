@@ -13,7 +13,6 @@ import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
 import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Component;
-import project.ii.flowx.module.auth.repository.InvalidTokenRepository;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
@@ -33,7 +32,7 @@ public class JwtDecoderImpl implements JwtDecoder {
     private String jwtIssuer;
 
     @Autowired
-    private InvalidTokenRepository invalidTokenRepository;
+    private TokenRevocationService tokenRevocationService;
 
     private NimbusJwtDecoder nimbusJwtDecoder;
 
@@ -54,14 +53,17 @@ public class JwtDecoderImpl implements JwtDecoder {
 
     @Override
     public Jwt decode(String token) throws JwtException {
-        if (invalidTokenRepository.existsByToken(token)) {
-            throw new JwtException("Token has been invalidated");
-        }
-
+        Jwt jwt;
         try {
-            return nimbusJwtDecoder.decode(token);
+            jwt = nimbusJwtDecoder.decode(token);
         } catch (JwtException e) {
             throw new JwtException("Invalid JWT token: " + e.getMessage(), e);
         }
+
+        // Revocation is checked after the signature so forged tokens never reach the revocation store
+        if (tokenRevocationService.isRevoked(jwt.getId(), jwt.getExpiresAt())) {
+            throw new JwtException("Token has been invalidated");
+        }
+        return jwt;
     }
 }
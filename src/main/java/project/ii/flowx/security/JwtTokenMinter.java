@@ -0,0 +1,86 @@
+package project.ii.flowx.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Issues HS256 access and refresh tokens.
+ * The signer is derived once from the configured secret, and callers get the generated
+ * claims back directly instead of decoding the token they just signed.
+ */
+@Component
+public class JwtTokenMinter {
+    private static final JWSHeader HEADER = new JWSHeader(JWSAlgorithm.HS256);
+
+    @Value("${spring.jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${spring.jwt.issuer:FlowX}")
+    private String jwtIssuer;
+
+    private MACSigner signer;
+
+    public record MintedToken(String value, String jti, Instant expiresAt) { }
+
+    public record TokenPair(MintedToken accessToken, MintedToken refreshToken) { }
+
+    @PostConstruct
+    public void init() throws JOSEException {
+        // Same key bytes as JwtDecoderImpl so both sides agree regardless of platform charset
+        this.signer = new MACSigner(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Mint an access and a refresh token for the principal, building the scope claim once */
+    public TokenPair mintPair(UserPrincipal userPrincipal, long accessExpiration, long refreshExpiration) {
+        String scope = scopeOf(userPrincipal);
+        Instant now = Instant.now();
+        return new TokenPair(
+                mint(userPrincipal, scope, now, accessExpiration),
+                mint(userPrincipal, scope, now, refreshExpiration)
+        );
+    }
+
+    private MintedToken mint(UserPrincipal userPrincipal, String scope, Instant now, long expiration) {
+        Instant expiryTime = now.plusMillis(expiration);
+        String jti = UUID.randomUUID().toString();
+
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .subject(userPrincipal.getUsername())
+                .issuer(jwtIssuer)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(expiryTime))
+                .jwtID(jti)
+                .claim("userId", userPrincipal.getId().toString())
+                .claim("scope", scope)
+                .build();
+
+        try {
+            SignedJWT signedJWT = new SignedJWT(HEADER, claimsSet);
+            signedJWT.sign(signer);
+            // JWT timestamps have second precision, report what the token actually carries
+            return new MintedToken(signedJWT.serialize(), jti, Instant.ofEpochSecond(expiryTime.getEpochSecond()));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to generate JWT token", e);
+        }
+    }
+
+    private static String scopeOf(UserPrincipal userPrincipal) {
+        return userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,164 @@
+package project.ii.flowx.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import project.ii.flowx.applications.helper.AfterCommit;
+import project.ii.flowx.module.auth.entity.InvalidToken;
+import project.ii.flowx.module.auth.repository.InvalidTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Access token revocation keyed by the jti claim.
+ * Lookups are answered from a node-local Bloom filter and a bounded exact cache;
+ * the database is only consulted when the filter reports a possible hit.
+ * Revocations are broadcast over Redis pub/sub so every node updates its local state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+    private static final String REVOCATION_CHANNEL = "token_revocation";
+    private static final Duration NEGATIVE_ENTRY_TTL = Duration.ofSeconds(60);
+
+    private final InvalidTokenRepository invalidTokenRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.token-revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${app.token-revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.token-revocation.cache-size:10000}")
+    private int cacheSize;
+
+    private volatile RevokedTokenFilter filter;
+    private Cache<String, Revocation> exactCache;
+
+    private record Revocation(boolean revoked, Instant expiresAt) { }
+
+    @PostConstruct
+    public void init() {
+        this.exactCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new RevocationExpiry())
+                .build();
+        rebuildFilter();
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                applyRemoteRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(REVOCATION_CHANNEL));
+    }
+
+    /** Check whether the token with the given jti has been revoked */
+    public boolean isRevoked(String jti, Instant expiresAt) {
+        if (jti == null) return false;
+
+        Revocation cached = exactCache.getIfPresent(jti);
+        if (cached != null) return cached.revoked();
+
+        if (!filter.mightContain(jti)) return false;
+
+        boolean revoked = invalidTokenRepository.existsByJti(jti);
+        exactCache.put(jti, new Revocation(revoked, expiresAt));
+        return revoked;
+    }
+
+    /** Revoke a token until it expires and notify the other nodes once the revocation commits */
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.isBefore(Instant.now())) return;
+
+        if (!invalidTokenRepository.existsByJti(jti)) {
+            InvalidToken invalidToken = new InvalidToken();
+            invalidToken.setJti(jti);
+            invalidToken.setExpiredAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+            invalidTokenRepository.save(invalidToken);
+        }
+        // Nodes may only reject the token once the row they rebuild their filters from has committed
+        AfterCommit.run(() -> {
+            markRevoked(jti, expiresAt);
+            try {
+                redisTemplate.convertAndSend(REVOCATION_CHANNEL, jti + ":" + expiresAt.getEpochSecond());
+            } catch (Exception e) {
+                log.error("Failed to broadcast token revocation {}: {}", jti, e.getMessage(), e);
+            }
+        });
+    }
+
+    /** Delete up to {@code batchSize} revocations whose token has expired */
+    public int pruneExpired(int batchSize) {
+        return invalidTokenRepository.deleteExpiredBatch(LocalDateTime.now(), batchSize);
+    }
+
+    /**
+     * Rebuild the filter from the live revocations on this node,
+     * since a Bloom filter cannot forget expired entries on its own
+     */
+    public void rebuildFilter() {
+        RevokedTokenFilter rebuilt = new RevokedTokenFilter(expectedInsertions, falsePositiveRate);
+        invalidTokenRepository.findActiveJtis(LocalDateTime.now()).forEach(rebuilt::put);
+        // Revocations received while the rebuild was running are still held by the exact cache
+        exactCache.asMap().forEach((jti, revocation) -> {
+            if (revocation.revoked()) rebuilt.put(jti);
+        });
+        this.filter = rebuilt;
+    }
+
+    private void applyRemoteRevocation(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed token revocation message: {}", payload);
+            return;
+        }
+        try {
+            String jti = payload.substring(0, separator);
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(payload.substring(separator + 1)));
+            markRevoked(jti, expiresAt);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed token revocation message: {}", payload);
+        }
+    }
+
+    private void markRevoked(String jti, Instant expiresAt) {
+        filter.put(jti);
+        exactCache.put(jti, new Revocation(true, expiresAt));
+    }
+
+    /** Revoked entries live until the token expires, negative answers only briefly */
+    private static class RevocationExpiry implements Expiry<String, Revocation> {
+        @Override
+        public long expireAfterCreate(String jti, Revocation revocation, long currentTime) {
+            if (revocation.expiresAt() == null) return NEGATIVE_ENTRY_TTL.toNanos();
+            long untilExpiry = Duration.between(Instant.now(), revocation.expiresAt()).toNanos();
+            long ttl = revocation.revoked() ? untilExpiry : Math.min(untilExpiry, NEGATIVE_ENTRY_TTL.toNanos());
+            return Math.max(ttl, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String jti, Revocation revocation, long currentTime, long currentDuration) {
+            return expireAfterCreate(jti, revocation, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String jti, Revocation revocation, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package project.ii.flowx.security;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import project.ii.flowx.module.auth.service.UserRoleService;
 import project.ii.flowx.module.user.entity.User;
@@ -17,7 +19,7 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final UserRoleService userRoleService;
@@ -30,4 +32,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         List<UserRoleResponse> roles = userRoleService.getGlobalRolesForUser(user.getId());
         return UserPrincipal.create(user, roles);
     }
+
+    /**
+     * Called after a successful login whose stored hash is below the configured BCrypt strength.
+     * Runs in its own transaction because the login itself is read-only.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        log.debug("Upgraded password hash for user {}", user.getId());
+
+        List<UserRoleResponse> roles = userRoleService.getGlobalRolesForUser(user.getId());
+        return UserPrincipal.create(user, roles);
+    }
 }
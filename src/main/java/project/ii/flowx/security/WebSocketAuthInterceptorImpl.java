@@ -11,8 +11,6 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
@@ -21,14 +19,15 @@ import org.springframework.stereotype.Component;
  * It extracts the JWT from the STOMP headers, decodes it, and sets the user in the security context.
  * Why custom interceptor?
  * Socket connections do not go through the standard HTTP security filters, dont have bearer token in the request header.
+ * The principal is built from the token claims through {@link JwtAuthenticationCache}, the same way as for HTTP requests,
+ * so a reconnect storm only costs signature checks and never reaches the database.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketAuthInterceptorImpl implements ChannelInterceptor {
 
-    private final JwtDecoder jwtDecoder;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
 
     @Override
     public Message<?> preSend(@NotNull Message<?> message, @NotNull MessageChannel channel) {
@@ -40,17 +39,14 @@ public class WebSocketAuthInterceptorImpl implements ChannelInterceptor {
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                 String token = authorizationHeader.substring(7);
                 try {
-                    Jwt jwt = jwtDecoder.decode(token);
-                    String email = jwt.getSubject();
-                    
-                    UserPrincipal userPrincipal = (UserPrincipal) userDetailsService.loadUserByUsername(email);
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
-                    
+                    // Principal comes from the verified claims, no database round trip on CONNECT
+                    UsernamePasswordAuthenticationToken authentication = jwtAuthenticationCache.authenticate(token);
+                    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
                     accessor.setUser(authentication);
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                    
-                    log.debug("WebSocket authenticated user: {} (ID: {})", email, userPrincipal.getId());
+
+                    log.debug("WebSocket authenticated user: {} (ID: {})", userPrincipal.getUsername(), userPrincipal.getId());
                 } catch (JwtException e) {
                     log.warn("Invalid JWT token in WebSocket connection: {}", e.getMessage());
                 }
@@ -0,0 +1,12 @@
+-- Revocations are keyed by the jti claim instead of the full JWT string
+ALTER TABLE invalid_token ADD COLUMN IF NOT EXISTS jti VARCHAR(64);
+
+-- Legacy rows carry neither a jti nor an expiry, so they can never be matched or pruned
+DELETE FROM invalid_token WHERE jti IS NULL OR expired_at IS NULL;
+
+ALTER TABLE invalid_token DROP COLUMN IF EXISTS token;
+ALTER TABLE invalid_token ALTER COLUMN jti SET NOT NULL;
+ALTER TABLE invalid_token ALTER COLUMN expired_at SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invalid_token_jti ON invalid_token (jti);
+CREATE INDEX IF NOT EXISTS idx_invalid_token_expired_at ON invalid_token (expired_at);
@@ -0,0 +1,5 @@
+-- Conversation history is paged by (created_at, id), newest first by default.
+-- The composite index serves both directions and also covers lookups by conversation_id alone.
+CREATE INDEX IF NOT EXISTS idx_message_conversation_created ON messages (conversation_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_message_conversation;
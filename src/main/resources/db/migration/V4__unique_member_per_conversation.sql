@@ -0,0 +1,22 @@
+-- Read watermarks are updated through a (conversation_id, user_id) lookup, so each user may have one membership row.
+-- Collapse duplicates onto the earliest membership, keeping the furthest read watermark.
+WITH ranked AS (
+    SELECT id,
+           conversation_id,
+           user_id,
+           ROW_NUMBER() OVER (PARTITION BY conversation_id, user_id ORDER BY joined_at, id) AS rn,
+           MAX(read_at) OVER (PARTITION BY conversation_id, user_id) AS max_read_at
+    FROM member
+)
+UPDATE member m
+SET read_at = r.max_read_at
+FROM ranked r
+WHERE m.id = r.id AND r.rn = 1;
+
+DELETE FROM member m
+USING member keep
+WHERE m.conversation_id = keep.conversation_id
+  AND m.user_id = keep.user_id
+  AND (keep.joined_at, keep.id) < (m.joined_at, m.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_member_conversation_user ON member (conversation_id, user_id);
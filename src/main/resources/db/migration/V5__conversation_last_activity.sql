@@ -0,0 +1,24 @@
+-- The inbox lists a user's conversations by last activity through the member table,
+-- with the latest message denormalized onto the conversation row.
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMP;
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS last_message_id UUID;
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS last_message_sender_id UUID;
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS last_message_preview VARCHAR(200);
+
+UPDATE conversation c
+SET last_activity_at = latest.created_at,
+    last_message_id = latest.id,
+    last_message_sender_id = latest.sender_id,
+    last_message_preview = LEFT(latest.content, 140)
+FROM (
+    SELECT DISTINCT ON (conversation_id) conversation_id, id, sender_id, content, created_at
+    FROM messages
+    WHERE status <> 'DELETED'
+    ORDER BY conversation_id, created_at DESC, id DESC
+) latest
+WHERE latest.conversation_id = c.id;
+
+UPDATE conversation SET last_activity_at = COALESCE(created_at, NOW()) WHERE last_activity_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_conversation_last_activity ON conversation (last_activity_at, id);
+CREATE INDEX IF NOT EXISTS idx_member_user ON member (user_id, conversation_id);
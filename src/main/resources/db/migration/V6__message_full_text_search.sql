@@ -0,0 +1,8 @@
+-- Full-text search over message content. The tsvector is a stored generated column, so Postgres
+-- computes it inside the same INSERT/UPDATE that writes the content and the application never maintains it.
+-- The 'simple' configuration lowercases and splits words without stemming, which suits mixed-language chat.
+-- Adding a stored generated column rewrites the table once; run it outside peak hours on large deployments.
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS content_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(content, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_message_content_tsv ON messages USING GIN (content_tsv);
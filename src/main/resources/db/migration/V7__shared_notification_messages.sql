@@ -0,0 +1,68 @@
+-- A fan-out writes the title, content and target once into notification_messages,
+-- and each recipient only gets a narrow delivery row in notifications pointing at it.
+-- The script runs on every startup through spring.sql.init, after Hibernate has updated the schema,
+-- so every step is a no-op once applied. Hibernate cannot add the NOT NULL message_id to a populated
+-- table and only logs that failure; the column is added nullable here, backfilled, then constrained.
+-- DO bodies are single-quoted rather than dollar-quoted so that the script splitter keeps them whole.
+CREATE TABLE IF NOT EXISTS notification_messages (
+    id         UUID PRIMARY KEY,
+    title      VARCHAR(200) NOT NULL,
+    content    TEXT,
+    target     JSONB,
+    created_at TIMESTAMP
+);
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS message_id UUID;
+
+-- Only while the legacy per-delivery columns still exist: rows that share text, target and creation
+-- second came from one fan-out, so they are pointed at a single message keyed by the lowest delivery id
+-- of the group. read_at used to be stamped on every update including the insert, so it is only kept
+-- for read rows. The legacy columns are dropped last, which also lifts their NOT NULL constraints.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''notifications'' AND column_name = ''title'') THEN
+        WITH grouped AS (
+            SELECT id,
+                   FIRST_VALUE(id) OVER (
+                       PARTITION BY title, content, target::text, date_trunc(''second'', created_at)
+                       ORDER BY id) AS message_id
+            FROM notifications
+            WHERE message_id IS NULL
+        )
+        UPDATE notifications n
+        SET message_id = g.message_id
+        FROM grouped g
+        WHERE n.id = g.id;
+
+        INSERT INTO notification_messages (id, title, content, target, created_at)
+        SELECT id, title, content, target, created_at
+        FROM notifications
+        WHERE id = message_id
+        ON CONFLICT (id) DO NOTHING;
+
+        UPDATE notifications SET read_at = NULL WHERE is_read IS NOT TRUE;
+
+        ALTER TABLE notifications DROP COLUMN IF EXISTS title;
+        ALTER TABLE notifications DROP COLUMN IF EXISTS content;
+        ALTER TABLE notifications DROP COLUMN IF EXISTS target;
+    END IF;
+END';
+
+UPDATE notifications SET is_read = false WHERE is_read IS NULL;
+
+ALTER TABLE notifications ALTER COLUMN message_id SET NOT NULL;
+ALTER TABLE notifications ALTER COLUMN is_read SET NOT NULL;
+
+-- Hibernate names the foreign key itself on a fresh schema, so look for any key to notification_messages
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = ''notifications''::regclass AND contype = ''f''
+                     AND confrelid = ''notification_messages''::regclass) THEN
+        ALTER TABLE notifications ADD CONSTRAINT fk_notification_message
+            FOREIGN KEY (message_id) REFERENCES notification_messages (id);
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS idx_notification_message ON notifications (message_id);
@@ -0,0 +1,3 @@
+-- The feed is paged by (created_at, id) per user, and the unread badge only counts unread rows.
+CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notifications (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_notification_user_unread ON notifications (user_id) WHERE is_read = false;
@@ -0,0 +1,18 @@
+-- Delivery rows past the retention window move here; the table is partitioned by month of created_at
+-- so that expired history is removed by dropping whole partitions. Partitions are created by the
+-- retention job as rows are archived, named notifications_archive_yYYYYmMM.
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id          UUID NOT NULL,
+    user_id     UUID NOT NULL,
+    message_id  UUID NOT NULL,
+    is_read     BOOLEAN NOT NULL,
+    created_at  TIMESTAMP NOT NULL,
+    read_at     TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW()
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_notification_archive_user_created ON notifications_archive (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_notification_archive_message ON notifications_archive (message_id);
+
+-- The archival batches walk the hot table by age
+CREATE INDEX IF NOT EXISTS idx_notification_created ON notifications (created_at);
@@ -0,0 +1,31 @@
+-- Append a new message to a conversation tail if the tail is cached, keeping at most ARGV[2] entries.
+-- Transactions can commit out of (createdAt, id) order; a message older than the current last entry
+-- drops the tail instead, so that pages and cursors built from it never skip a message.
+-- createdAt is ISO-8601 and ids are lowercase UUIDs, so both compare as strings.
+-- KEYS[1] conversation_tail:<conversationId>   KEYS[2] conversation_tail_version:<conversationId>
+-- ARGV[1] message   ARGV[2] max entries   ARGV[3] ttl millis
+-- Returns the new tail length, 0 when the tail was not cached or was dropped.
+
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[3])
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+
+local last = redis.call('LINDEX', KEYS[1], -1)
+if last then
+    local message = cjson.decode(ARGV[1])
+    local ok, previous = pcall(cjson.decode, last)
+    if not ok or type(previous['createdAt']) ~= 'string' or type(message['createdAt']) ~= 'string'
+            or message['createdAt'] < previous['createdAt']
+            or (message['createdAt'] == previous['createdAt'] and message['id'] < previous['id']) then
+        redis.call('DEL', KEYS[1])
+        return 0
+    end
+end
+
+redis.call('RPUSH', KEYS[1], ARGV[1])
+redis.call('LTRIM', KEYS[1], -tonumber(ARGV[2]), -1)
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+return redis.call('LLEN', KEYS[1])
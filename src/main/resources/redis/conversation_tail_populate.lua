@@ -0,0 +1,15 @@
+-- Fill a conversation tail after a database read, unless a writer got there first.
+-- KEYS[1] conversation_tail:<conversationId>   KEYS[2] conversation_tail_version:<conversationId>
+-- ARGV[1] version observed before the database read   ARGV[2] ttl millis   ARGV[3..] messages, oldest first
+-- Returns 1 when the tail was stored, 0 when it already existed or a write happened since the read.
+
+local version = redis.call('GET', KEYS[2]) or '0'
+if version ~= ARGV[1] or redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+
+if #ARGV > 2 then
+    redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 1
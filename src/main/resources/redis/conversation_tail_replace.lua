@@ -0,0 +1,25 @@
+-- Replace or remove one message in a conversation tail, matched by its id field.
+-- KEYS[1] conversation_tail:<conversationId>   KEYS[2] conversation_tail_version:<conversationId>
+-- ARGV[1] message id   ARGV[2] replacement message, empty to remove   ARGV[3] max entries   ARGV[4] ttl millis
+-- A full tail that loses an entry no longer knows whether older history exists, so it is dropped instead.
+-- Returns 1 when the tail changed, 0 otherwise.
+
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[4])
+
+local entries = redis.call('LRANGE', KEYS[1], 0, -1)
+for i = 1, #entries do
+    local ok, message = pcall(cjson.decode, entries[i])
+    if ok and message['id'] == ARGV[1] then
+        if ARGV[2] ~= '' then
+            redis.call('LSET', KEYS[1], i - 1, ARGV[2])
+        elseif #entries >= tonumber(ARGV[3]) then
+            redis.call('DEL', KEYS[1])
+        else
+            redis.call('LSET', KEYS[1], i - 1, '__removed__')
+            redis.call('LREM', KEYS[1], 1, '__removed__')
+        end
+        return 1
+    end
+end
+return 0
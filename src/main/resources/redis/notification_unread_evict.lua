@@ -0,0 +1,9 @@
+-- Drop cached unread notification counts and bump their versions so that a read racing this eviction is not stored.
+-- KEYS pairs of notification_unread:<userId>, notification_unread_version:<userId>   ARGV[1] ttl millis
+
+for i = 1, #KEYS, 2 do
+    redis.call('INCR', KEYS[i + 1])
+    redis.call('PEXPIRE', KEYS[i + 1], ARGV[1])
+    redis.call('DEL', KEYS[i])
+end
+return #KEYS / 2
@@ -0,0 +1,12 @@
+-- Store a user's unread notification count after a database read, unless it was evicted since.
+-- KEYS[1] notification_unread:<userId>   KEYS[2] notification_unread_version:<userId>
+-- ARGV[1] version observed before the database read   ARGV[2] count   ARGV[3] ttl millis
+-- Returns 1 when the count was stored, 0 when an eviction happened since the read.
+
+local version = redis.call('GET', KEYS[2]) or '0'
+if version ~= ARGV[1] then
+    return 0
+end
+
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,16 @@
+-- Revoke a single refresh token session.
+-- KEYS[1] refresh_token:<jti>   KEYS[2] session_data:<jti>
+-- ARGV[1] jti   ARGV[2] user session key prefix
+-- Returns 1 if a session was removed, 0 if it did not exist.
+
+local owner = redis.call('GET', KEYS[1])
+redis.call('DEL', KEYS[1], KEYS[2])
+if not owner then
+    return 0
+end
+
+local userSessionKey = ARGV[2] .. owner
+if redis.call('TYPE', userSessionKey).ok == 'zset' then
+    redis.call('ZREM', userSessionKey, ARGV[1])
+end
+return 1
@@ -0,0 +1,20 @@
+-- Revoke every refresh token session of a user.
+-- KEYS[1] user_session:<userId>
+-- ARGV[1] refresh token key prefix   ARGV[2] session data key prefix
+-- Returns the number of sessions removed.
+
+local sessionType = redis.call('TYPE', KEYS[1]).ok
+local tokenIds
+if sessionType == 'zset' then
+    tokenIds = redis.call('ZRANGE', KEYS[1], 0, -1)
+elseif sessionType == 'set' then
+    tokenIds = redis.call('SMEMBERS', KEYS[1])
+else
+    return 0
+end
+
+for _, tokenId in ipairs(tokenIds) do
+    redis.call('DEL', ARGV[1] .. tokenId, ARGV[2] .. tokenId)
+end
+redis.call('DEL', KEYS[1])
+return #tokenIds
@@ -0,0 +1,39 @@
+-- Consume a refresh token session and store its replacement in one atomic step.
+-- KEYS[1] refresh_token:<old jti>   KEYS[2] session_data:<old jti>
+-- KEYS[3] refresh_token:<new jti>   KEYS[4] session_data:<new jti>   KEYS[5] user_session:<userId>
+-- ARGV[1] old jti   ARGV[2] new jti   ARGV[3] userId   ARGV[4] ttl millis   ARGV[5] session data
+-- ARGV[6] issued-at millis (sorted set score)   ARGV[7] max sessions
+-- ARGV[8] refresh token key prefix   ARGV[9] session data key prefix
+-- Keys of evicted sessions are derived from the prefixes, so this script assumes a non-clustered Redis.
+-- Returns 1 if the old token was valid and has been replaced, 0 if it was missing, expired or already used.
+
+local owner = redis.call('GET', KEYS[1])
+if not owner or owner ~= ARGV[3] then
+    return 0
+end
+
+redis.call('DEL', KEYS[1], KEYS[2])
+
+-- Sessions used to be kept in a plain set, drop it instead of failing with WRONGTYPE
+if redis.call('TYPE', KEYS[5]).ok == 'set' then
+    redis.call('DEL', KEYS[5])
+end
+redis.call('ZREM', KEYS[5], ARGV[1])
+
+local ttl = tonumber(ARGV[4])
+local excess = redis.call('ZCARD', KEYS[5]) - tonumber(ARGV[7]) + 1
+if excess > 0 then
+    local oldest = redis.call('ZPOPMIN', KEYS[5], excess)
+    for i = 1, #oldest, 2 do
+        redis.call('DEL', ARGV[8] .. oldest[i], ARGV[9] .. oldest[i])
+    end
+end
+
+redis.call('SET', KEYS[3], ARGV[3], 'PX', ttl)
+redis.call('SET', KEYS[4], ARGV[5], 'PX', ttl)
+redis.call('ZADD', KEYS[5], ARGV[6], ARGV[2])
+if redis.call('PTTL', KEYS[5]) < ttl then
+    redis.call('PEXPIRE', KEYS[5], ttl)
+end
+
+return 1
@@ -0,0 +1,34 @@
+-- Store a refresh token session and enforce the per-user session limit atomically.
+-- KEYS[1] refresh_token:<jti>   KEYS[2] session_data:<jti>   KEYS[3] user_session:<userId>
+-- ARGV[1] jti   ARGV[2] userId   ARGV[3] ttl millis   ARGV[4] session data
+-- ARGV[5] issued-at millis (sorted set score)   ARGV[6] max sessions
+-- ARGV[7] refresh token key prefix   ARGV[8] session data key prefix
+-- Keys of evicted sessions are derived from the prefixes, so this script assumes a non-clustered Redis.
+-- Returns the number of sessions evicted to make room.
+
+local ttl = tonumber(ARGV[3])
+local maxSessions = tonumber(ARGV[6])
+
+-- Sessions used to be kept in a plain set, drop it instead of failing with WRONGTYPE
+if redis.call('TYPE', KEYS[3]).ok == 'set' then
+    redis.call('DEL', KEYS[3])
+end
+
+local evicted = 0
+local excess = redis.call('ZCARD', KEYS[3]) - maxSessions + 1
+if excess > 0 then
+    local oldest = redis.call('ZPOPMIN', KEYS[3], excess)
+    for i = 1, #oldest, 2 do
+        redis.call('DEL', ARGV[7] .. oldest[i], ARGV[8] .. oldest[i])
+        evicted = evicted + 1
+    end
+end
+
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ttl)
+redis.call('SET', KEYS[2], ARGV[4], 'PX', ttl)
+redis.call('ZADD', KEYS[3], ARGV[5], ARGV[1])
+if redis.call('PTTL', KEYS[3]) < ttl then
+    redis.call('PEXPIRE', KEYS[3], ttl)
+end
+
+return evicted
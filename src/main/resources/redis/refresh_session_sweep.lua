@@ -0,0 +1,44 @@
+-- One incremental step of the expired-session sweep.
+-- Scans a batch of user_session keys and removes token ids whose refresh_token key has expired.
+-- The scan cursor is kept in KEYS[1] so consecutive runs resume where the previous one stopped.
+-- KEYS[1] cursor key   ARGV[1] key pattern   ARGV[2] scan count   ARGV[3] refresh token key prefix
+-- Returns {keys scanned, entries removed, keys deleted, 1 if this step completed a full pass else 0}.
+
+local cursor = redis.call('GET', KEYS[1]) or '0'
+local scan = redis.call('SCAN', cursor, 'MATCH', ARGV[1], 'COUNT', tonumber(ARGV[2]))
+if scan[1] == '0' then
+    redis.call('DEL', KEYS[1])
+else
+    redis.call('SET', KEYS[1], scan[1])
+end
+local keys = scan[2]
+local removed = 0
+local deleted = 0
+
+for _, key in ipairs(keys) do
+    local keyType = redis.call('TYPE', key).ok
+    local tokenIds = {}
+    if keyType == 'zset' then
+        tokenIds = redis.call('ZRANGE', key, 0, -1)
+    elseif keyType == 'set' then
+        tokenIds = redis.call('SMEMBERS', key)
+    end
+
+    for _, tokenId in ipairs(tokenIds) do
+        if redis.call('EXISTS', ARGV[3] .. tokenId) == 0 then
+            if keyType == 'zset' then
+                redis.call('ZREM', key, tokenId)
+            else
+                redis.call('SREM', key, tokenId)
+            end
+            removed = removed + 1
+        end
+    end
+
+    -- Redis drops a collection once its last member is removed
+    if #tokenIds > 0 and redis.call('EXISTS', key) == 0 then
+        deleted = deleted + 1
+    end
+end
+
+return {#keys, removed, deleted, scan[1] == '0' and 1 or 0}
@@ -0,0 +1,11 @@
+-- Drop materialized unread hashes and bump their versions, so a rebuild racing this drop is not stored.
+-- KEYS pairs of unread:<userId>, unread_version:<userId>   ARGV[1] ttl millis
+-- Returns the number of hashes dropped.
+
+local dropped = 0
+for i = 1, #KEYS, 2 do
+    redis.call('INCR', KEYS[i + 1])
+    redis.call('PEXPIRE', KEYS[i + 1], ARGV[1])
+    dropped = dropped + redis.call('DEL', KEYS[i])
+end
+return dropped
@@ -0,0 +1,17 @@
+-- Count a new message as unread for each recipient whose counters are materialized.
+-- Every recipient's version is bumped, so a count computed from the database before this increment is never stored.
+-- Recipients without a hash are skipped; their counters are computed from the database on the next read.
+-- KEYS pairs of unread:<userId>, unread_version:<userId>   ARGV[1] conversation id   ARGV[2] ttl millis
+-- Returns the number of hashes updated.
+
+local updated = 0
+for i = 1, #KEYS, 2 do
+    redis.call('INCR', KEYS[i + 1])
+    redis.call('PEXPIRE', KEYS[i + 1], ARGV[2])
+    if redis.call('EXISTS', KEYS[i]) == 1 then
+        redis.call('HINCRBY', KEYS[i], ARGV[1], 1)
+        redis.call('PEXPIRE', KEYS[i], ARGV[2])
+        updated = updated + 1
+    end
+end
+return updated
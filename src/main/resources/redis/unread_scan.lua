@@ -0,0 +1,20 @@
+-- One step of the unread counter reconciliation pass.
+-- The scan cursor is kept in KEYS[1] so consecutive runs resume where the previous one stopped.
+-- KEYS[1] cursor key   ARGV[1] key pattern   ARGV[2] scan count
+-- Returns {1 if this step completed a full pass else 0, keys...}.
+
+local cursor = redis.call('GET', KEYS[1]) or '0'
+local scan = redis.call('SCAN', cursor, 'MATCH', ARGV[1], 'COUNT', tonumber(ARGV[2]))
+local passCompleted = 0
+if scan[1] == '0' then
+    redis.call('DEL', KEYS[1])
+    passCompleted = 1
+else
+    redis.call('SET', KEYS[1], scan[1])
+end
+
+local result = { passCompleted }
+for _, key in ipairs(scan[2]) do
+    result[#result + 1] = key
+end
+return result
@@ -0,0 +1,21 @@
+-- Set one conversation's counter after its read watermark moved, if the user's counters are materialized.
+-- When anything changed the counters since the count was taken, the hash is dropped instead
+-- and rebuilt from the database on the next read.
+-- KEYS[1] unread:<userId>   KEYS[2] unread_version:<userId>
+-- ARGV[1] version observed before the count   ARGV[2] conversation id   ARGV[3] count   ARGV[4] ttl millis
+-- Returns 1 when set, 0 when not materialized, -1 when dropped.
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+
+local version = redis.call('GET', KEYS[2]) or '0'
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[4])
+if version ~= ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return -1
+end
+
+redis.call('HSET', KEYS[1], ARGV[2], ARGV[3])
+return 1
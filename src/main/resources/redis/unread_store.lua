@@ -0,0 +1,16 @@
+-- Replace a user's unread hash with counts computed from the database, unless the counters changed since.
+-- KEYS[1] unread:<userId>   KEYS[2] unread_version:<userId>
+-- ARGV[1] version observed before the database read   ARGV[2] ttl millis   ARGV[3..] conversation id, count pairs
+-- Returns 1 when the hash was stored, 0 when a write happened since the read.
+
+local version = redis.call('GET', KEYS[2]) or '0'
+if version ~= ARGV[1] then
+    return 0
+end
+
+redis.call('DEL', KEYS[1])
+if #ARGV > 2 then
+    redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 1
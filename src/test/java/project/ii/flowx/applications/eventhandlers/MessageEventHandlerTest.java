@@ -0,0 +1,127 @@
+package project.ii.flowx.applications.eventhandlers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.ii.flowx.applications.events.MessageEvent;
+import project.ii.flowx.module.message.dto.message.MessageResponse;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class MessageEventHandlerTest {
+
+    private AnnotationConfigApplicationContext context;
+    private SimpMessagingTemplate messagingTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+        @Bean
+        SimpMessagingTemplate messagingTemplate() {
+            return mock(SimpMessagingTemplate.class);
+        }
+
+        @Bean
+        MessageEventHandler messageEventHandler(SimpMessagingTemplate messagingTemplate) {
+            return new MessageEventHandler(messagingTemplate);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new InMemoryTransactionManager();
+        }
+    }
+
+    /** Drives transaction synchronization without a database */
+    static class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) { }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) { }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) { }
+    }
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        messagingTemplate = context.getBean(SimpMessagingTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    private static MessageResponse message(UUID conversationId) {
+        return new MessageResponse(UUID.randomUUID(), conversationId, UUID.randomUUID(), "hello", null, "SENT");
+    }
+
+    @Test
+    void broadcastsOnlyAfterCommit() {
+        UUID conversationId = UUID.randomUUID();
+        MessageResponse message = message(conversationId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            context.publishEvent(new MessageEvent.MessageCreatedEvent(message));
+            verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        });
+
+        verify(messagingTemplate).convertAndSend("/topic/conversation/" + conversationId, (Object) message);
+    }
+
+    @Test
+    void rolledBackMessagesAreNeverBroadcast() {
+        transactionTemplate.executeWithoutResult(status -> {
+            context.publishEvent(new MessageEvent.MessageCreatedEvent(message(UUID.randomUUID())));
+            status.setRollbackOnly();
+        });
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void updatesAndDeletesGoToTheirOwnTopics() {
+        UUID conversationId = UUID.randomUUID();
+        MessageResponse message = message(conversationId);
+
+        context.publishEvent(new MessageEvent.MessageUpdatedEvent(message));
+        context.publishEvent(new MessageEvent.MessageDeletedEvent(message.getId(), message.getSenderId(), conversationId));
+
+        verify(messagingTemplate).convertAndSend("/topic/conversation/" + conversationId + "/update", (Object) message);
+        verify(messagingTemplate).convertAndSend("/topic/conversation/" + conversationId + "/delete", (Object) message.getId());
+    }
+
+    @Test
+    void broadcastFailuresDoNotEscapeTheListener() {
+        doThrow(new IllegalStateException("broker down")).when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+
+        context.publishEvent(new MessageEvent.MessageCreatedEvent(message(UUID.randomUUID())));
+    }
+}
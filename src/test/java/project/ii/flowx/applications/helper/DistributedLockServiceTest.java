@@ -0,0 +1,45 @@
+package project.ii.flowx.applications.helper;
+
+import org.junit.jupiter.api.Test;
+import project.ii.flowx.support.RedisContainerSupport;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistributedLockServiceTest extends RedisContainerSupport {
+
+    private final DistributedLockService lockService = new DistributedLockService(redis);
+
+    @Test
+    void onlyOneHolderAtATime() {
+        String token = lockService.tryLock("sweep", Duration.ofMinutes(1));
+
+        assertThat(token).isNotNull();
+        assertThat(lockService.tryLock("sweep", Duration.ofMinutes(1))).isNull();
+        assertThat(lockService.tryLock("other", Duration.ofMinutes(1))).isNotNull();
+
+        lockService.unlock("sweep", token);
+        assertThat(lockService.tryLock("sweep", Duration.ofMinutes(1))).isNotNull();
+    }
+
+    @Test
+    void aStaleTokenDoesNotReleaseTheNextHolder() {
+        String stale = lockService.tryLock("sweep", Duration.ofMinutes(1));
+        // The lease ran out and another node took the lock
+        redis.delete("lock:sweep");
+        String current = lockService.tryLock("sweep", Duration.ofMinutes(1));
+
+        lockService.unlock("sweep", stale);
+
+        assertThat(redis.opsForValue().get("lock:sweep")).isEqualTo(current);
+    }
+
+    @Test
+    void theLeaseExpiresOnItsOwn() throws InterruptedException {
+        lockService.tryLock("sweep", Duration.ofMillis(50));
+        Thread.sleep(150);
+
+        assertThat(lockService.tryLock("sweep", Duration.ofMinutes(1))).isNotNull();
+    }
+}
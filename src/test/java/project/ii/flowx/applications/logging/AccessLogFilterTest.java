@@ -0,0 +1,76 @@
+package project.ii.flowx.applications.logging;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AccessLogFilterTest {
+    private final AccessLogWriter writer = mock(AccessLogWriter.class);
+
+    @Test
+    void logsTheMatchedRouteStatusAndUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AccessLogFilter filter = filter(1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/post/" + UUID.randomUUID());
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            // What the handler mapping and the authentication filter leave on the request
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/post/{id}");
+            req.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, userId);
+            ((MockHttpServletResponse) res).setStatus(201);
+        });
+
+        ArgumentCaptor<AccessLogEntry> entry = ArgumentCaptor.forClass(AccessLogEntry.class);
+        verify(writer).submit(entry.capture());
+        assertThat(entry.getValue().method()).isEqualTo("GET");
+        assertThat(entry.getValue().route()).isEqualTo("/api/post/{id}");
+        assertThat(entry.getValue().status()).isEqualTo(201);
+        assertThat(entry.getValue().userId()).isEqualTo(userId);
+    }
+
+    @Test
+    void requestsRejectedBeforeRoutingAreStillLogged() throws Exception {
+        AccessLogFilter filter = filter(1.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/secret"), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(401));
+
+        ArgumentCaptor<AccessLogEntry> entry = ArgumentCaptor.forClass(AccessLogEntry.class);
+        verify(writer).submit(entry.capture());
+        assertThat(entry.getValue().route()).isEqualTo("UNMATCHED");
+        assertThat(entry.getValue().status()).isEqualTo(401);
+        assertThat(entry.getValue().userId()).isNull();
+    }
+
+    @Test
+    void samplingSkipsSuccessesButKeepsServerErrors() throws Exception {
+        AccessLogFilter filter = filter(0.0);
+        FilterChain ok = (req, res) -> ((MockHttpServletResponse) res).setStatus(200);
+        FilterChain failed = (req, res) -> ((MockHttpServletResponse) res).setStatus(503);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/a"), new MockHttpServletResponse(), ok);
+        verify(writer, never()).submit(any());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/a"), new MockHttpServletResponse(), failed);
+        verify(writer).submit(any());
+    }
+
+    private AccessLogFilter filter(double sampleRate) {
+        AccessLogFilter filter = new AccessLogFilter(writer);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "sampleRate", sampleRate);
+        return filter;
+    }
+}
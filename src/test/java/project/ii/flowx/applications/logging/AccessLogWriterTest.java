@@ -0,0 +1,42 @@
+package project.ii.flowx.applications.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogWriterTest {
+
+    @Test
+    void fullBufferDropsAndCountsInsteadOfBlocking() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Not started, so nothing drains the buffer
+        AccessLogWriter writer = new AccessLogWriter(2, meterRegistry);
+
+        assertThat(writer.submit(entry())).isTrue();
+        assertThat(writer.submit(entry())).isTrue();
+        assertThat(writer.submit(entry())).isFalse();
+        assertThat(writer.submit(entry())).isFalse();
+
+        assertThat(meterRegistry.get("flowx.access_log.dropped").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("flowx.access_log.buffered").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void runningWriterDrainsTheBuffer() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccessLogWriter writer = new AccessLogWriter(16, meterRegistry);
+        writer.start();
+        for (int i = 0; i < 10; i++) writer.submit(entry());
+
+        writer.stop();
+
+        assertThat(meterRegistry.get("flowx.access_log.buffered").gauge().value()).isZero();
+    }
+
+    private static AccessLogEntry entry() {
+        return new AccessLogEntry(Instant.now(), "GET", "/api/test", 200, 10, null);
+    }
+}
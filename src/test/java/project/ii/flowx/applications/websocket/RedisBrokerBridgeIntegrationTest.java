@@ -0,0 +1,166 @@
+package project.ii.flowx.applications.websocket;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import project.ii.flowx.config.MultipleWebSocketConfig;
+import project.ii.flowx.config.RedisMessagingConfig;
+import project.ii.flowx.security.JwtAuthenticationCache;
+import project.ii.flowx.security.WebSocketAuthInterceptorImpl;
+import project.ii.flowx.support.RedisContainerSupport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs two application nodes with the simple broker bridged over Redis
+ * and checks that a broadcast on one node reaches STOMP subscribers on both, exactly once.
+ */
+class RedisBrokerBridgeIntegrationTest extends RedisContainerSupport {
+    private static final String DESTINATION = "/topic/conversation.activity/bridge-test";
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private WebSocketStompClient stompClient;
+
+    @Configuration
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, RedisAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, WebSocketServletAutoConfiguration.class})
+    @Import({MultipleWebSocketConfig.class, RedisMessagingConfig.class, RedisBrokerBridge.class, SlowConsumerGuard.class})
+    static class Node {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        WebSocketAuthInterceptorImpl webSocketAuthInterceptor() {
+            return new WebSocketAuthInterceptorImpl(mock(JwtAuthenticationCache.class));
+        }
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new StringMessageConverter());
+    }
+
+    @AfterEach
+    void stopNodes() {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.SERVLET)
+                // application.yml is skipped, it expects the deployment's environment variables
+                .run("--spring.config.name=redis-broker-bridge-test",
+                        "--server.port=0",
+                        "--app.websocket.broker.mode=redis",
+                        "--spring.data.redis.host=" + redisHost(),
+                        "--spring.data.redis.port=" + redisPort());
+    }
+
+    @Test
+    void broadcastReachesSubscribersOnEveryNodeOnce() throws Exception {
+        List<String> receivedOnA = subscribe(nodeA);
+        List<String> receivedOnB = subscribe(nodeB);
+        awaitTrue(() -> bridgeListeners() >= 2);
+
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSend(DESTINATION, "hello");
+
+        awaitTrue(() -> !receivedOnA.isEmpty() && !receivedOnB.isEmpty());
+        // Give a re-published or echoed copy time to arrive before checking for duplicates
+        Thread.sleep(500);
+        assertThat(receivedOnA).containsExactly("hello");
+        assertThat(receivedOnB).containsExactly("hello");
+    }
+
+    private List<String> subscribe(ConfigurableApplicationContext node) throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        StompSession session = stompClient
+                .connectAsync("http://localhost:" + port + "/ws/conversation", new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        session.subscribe(DESTINATION, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        });
+
+        SimpleBrokerMessageHandler broker = node.getBean(SimpleBrokerMessageHandler.class);
+        SimpMessageHeaderAccessor probe = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        probe.setDestination(DESTINATION);
+        awaitTrue(() -> !broker.getSubscriptionRegistry()
+                .findSubscriptions(MessageBuilder.createMessage(new byte[0], probe.getMessageHeaders())).isEmpty());
+        return received;
+    }
+
+    /** Nodes whose listener container has subscribed to the bridge channel */
+    private static long bridgeListeners() {
+        RedisClient client = RedisClient.create(RedisURI.create(redisHost(), redisPort()));
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            return connection.sync().pubsubNumsub("stomp_broadcast").getOrDefault("stomp_broadcast", 0L);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 seconds").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package project.ii.flowx.applications.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowConsumerGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final WebSocketHandler delegate = mock(WebSocketHandler.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private SlowConsumerGuard guard;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        guard = new SlowConsumerGuard(meterRegistry);
+        ReflectionTestUtils.setField(guard, "dropThreshold", 2);
+        ReflectionTestUtils.setField(guard, "droppableDestinations", List.of("/topic/user.presence"));
+        when(session.getId()).thenReturn("s1");
+        handler = guard.decorate(delegate);
+        handler.afterConnectionEstablished(session);
+    }
+
+    private static Message<byte[]> frame(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("s1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private WebSocketSession countingSession() throws Exception {
+        ArgumentCaptor<WebSocketSession> captor = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(delegate).afterConnectionEstablished(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void dropsOnlyDroppableFramesOnceTheSessionFallsBehind() {
+        assertThat(guard.preSend(frame("/topic/user.presence"), channel)).isNotNull();
+        assertThat(guard.preSend(frame("/topic/conversation.1"), channel)).isNotNull();
+
+        assertThat(guard.preSend(frame("/topic/user.presence"), channel)).isNull();
+        assertThat(guard.preSend(frame("/topic/conversation.1"), channel)).isNotNull();
+        assertThat(meterRegistry.get("flowx.websocket.frames.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("flowx.websocket.session.pending.max").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void writtenFramesAreCountedOff() throws Exception {
+        WebSocketSession counting = countingSession();
+        MessageHandler outbound = mock(MessageHandler.class);
+        for (int i = 0; i < 2; i++) {
+            Message<?> counted = guard.preSend(frame("/topic/user.presence"), channel);
+            guard.beforeHandle(counted, channel, outbound);
+            counting.sendMessage(new TextMessage("frame"));
+            guard.afterMessageHandled(counted, channel, outbound, null);
+        }
+
+        assertThat(meterRegistry.get("flowx.websocket.session.pending.max").gauge().value()).isZero();
+        assertThat(guard.preSend(frame("/topic/user.presence"), channel)).isNotNull();
+    }
+
+    @Test
+    void framesTheTransportWritesOnItsOwnAreNotCountedOff() throws Exception {
+        WebSocketSession counting = countingSession();
+        guard.preSend(frame("/topic/user.presence"), channel);
+
+        counting.sendMessage(new TextMessage("ERROR frame"));
+
+        assertThat(meterRegistry.get("flowx.websocket.session.pending.max").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void countsSessionsClosedForBeingTooSlow() throws Exception {
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(meterRegistry.get("flowx.websocket.slow_disconnects").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("flowx.websocket.sessions").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,56 @@
+package project.ii.flowx.dto;
+
+import org.junit.jupiter.api.Test;
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsTimestampAndId() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(Cursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWholeSeconds() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2024, 5, 1, 12, 0), UUID.randomUUID());
+
+        assertThat(Cursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankMeansNoCursor() {
+        assertThat(Cursor.decode(null)).isNull();
+        assertThat(Cursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokensAsBadRequest() {
+        for (String token : new String[]{
+                "not base64!",
+                base64("2024-05-01T12:00"),
+                base64("yesterday|" + UUID.randomUUID()),
+                base64("2024-05-01T12:00|not-a-uuid")}) {
+            assertThatThrownBy(() -> Cursor.decode(token))
+                    .isInstanceOfSatisfying(FlowXException.class,
+                            e -> assertThat(e.getFlowXError()).isEqualTo(FlowXError.BAD_REQUEST));
+        }
+    }
+}
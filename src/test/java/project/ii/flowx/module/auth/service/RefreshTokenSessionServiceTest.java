@@ -0,0 +1,146 @@
+package project.ii.flowx.module.auth.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import project.ii.flowx.support.RedisContainerSupport;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshTokenSessionServiceTest extends RedisContainerSupport {
+
+    private final UUID userId = UUID.randomUUID();
+    private RefreshTokenSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenSessionService(redis);
+    }
+
+    private static Instant inOneHour() {
+        return Instant.now().plus(Duration.ofHours(1));
+    }
+
+    @Test
+    void storeKeepsOnlyTheNewestFiveSessions() {
+        for (int i = 0; i < 6; i++) {
+            service.storeRefreshTokenSession("t" + i, userId, inOneHour(), "agent", "127.0.0.1");
+        }
+
+        assertThat(service.getActiveSessionCount(userId)).isEqualTo(5);
+        assertThat(service.getUserActiveSessions(userId)).doesNotContain("t0").contains("t5");
+        assertThat(service.isTokenValid("t0")).isFalse();
+        assertThat(redis.hasKey("session_data:t0")).isFalse();
+        assertThat(service.getUserIdFromToken("t5")).isEqualTo(userId);
+    }
+
+    @Test
+    void storeReplacesALegacyPlainSet() {
+        redis.opsForSet().add("user_session:" + userId, "legacy");
+
+        service.storeRefreshTokenSession("t1", userId, inOneHour(), "agent", "127.0.0.1");
+
+        assertThat(service.getUserActiveSessions(userId)).containsExactly("t1");
+    }
+
+    @Test
+    void rotateConsumesTheOldTokenExactlyOnce() {
+        service.storeRefreshTokenSession("old", userId, inOneHour(), "agent", "127.0.0.1");
+
+        assertThat(service.rotateRefreshTokenSession("old", "new", userId, inOneHour(), "agent", "127.0.0.1")).isTrue();
+        assertThat(service.rotateRefreshTokenSession("old", "again", userId, inOneHour(), "agent", "127.0.0.1")).isFalse();
+
+        assertThat(service.isTokenValid("old")).isFalse();
+        assertThat(service.isTokenValid("again")).isFalse();
+        assertThat(service.getUserActiveSessions(userId)).containsExactly("new");
+    }
+
+    @Test
+    void rotateRejectsATokenOfAnotherUser() {
+        service.storeRefreshTokenSession("old", userId, inOneHour(), "agent", "127.0.0.1");
+
+        assertThat(service.rotateRefreshTokenSession("old", "new", UUID.randomUUID(), inOneHour(), "agent", "127.0.0.1")).isFalse();
+        assertThat(service.isTokenValid("old")).isTrue();
+        assertThat(service.isTokenValid("new")).isFalse();
+    }
+
+    @Test
+    void concurrentRotationsOfTheSameTokenHaveOneWinner() throws Exception {
+        service.storeRefreshTokenSession("old", userId, inOneHour(), "agent", "127.0.0.1");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String newTokenId = "new" + i;
+                attempts.add(() -> service.rotateRefreshTokenSession("old", newTokenId, userId, inOneHour(), "agent", "127.0.0.1"));
+            }
+            long winners = 0;
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                if (result.get()) winners++;
+            }
+            assertThat(winners).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(service.getActiveSessionCount(userId)).isEqualTo(1);
+    }
+
+    @Test
+    void revokeRemovesTheSessionFromTheUserSet() {
+        service.storeRefreshTokenSession("t1", userId, inOneHour(), "agent", "127.0.0.1");
+        service.storeRefreshTokenSession("t2", userId, inOneHour(), "agent", "127.0.0.1");
+
+        service.revokeSession("t1");
+
+        assertThat(service.isTokenValid("t1")).isFalse();
+        assertThat(redis.hasKey("session_data:t1")).isFalse();
+        assertThat(service.getUserActiveSessions(userId)).containsExactly("t2");
+    }
+
+    @Test
+    void revokeAllRemovesEverySession() {
+        service.storeRefreshTokenSession("t1", userId, inOneHour(), "agent", "127.0.0.1");
+        service.storeRefreshTokenSession("t2", userId, inOneHour(), "agent", "127.0.0.1");
+
+        service.revokeAllUserSessions(userId);
+
+        assertThat(service.isTokenValid("t1")).isFalse();
+        assertThat(service.isTokenValid("t2")).isFalse();
+        assertThat(service.getActiveSessionCount(userId)).isZero();
+    }
+
+    @Test
+    void sweepDropsExpiredEntriesAndEmptySets() {
+        service.storeRefreshTokenSession("live", userId, inOneHour(), "agent", "127.0.0.1");
+        service.storeRefreshTokenSession("dead", userId, inOneHour(), "agent", "127.0.0.1");
+        UUID otherUser = UUID.randomUUID();
+        service.storeRefreshTokenSession("gone", otherUser, inOneHour(), "agent", "127.0.0.1");
+        redis.delete(List.of("refresh_token:dead", "refresh_token:gone"));
+
+        RefreshTokenSessionService.SessionSweepResult total = new RefreshTokenSessionService.SessionSweepResult(0, 0, 0, false);
+        RefreshTokenSessionService.SessionSweepResult step;
+        do {
+            step = service.cleanupExpiredSessions(100);
+            total = new RefreshTokenSessionService.SessionSweepResult(
+                    total.keysScanned() + step.keysScanned(),
+                    total.entriesRemoved() + step.entriesRemoved(),
+                    total.keysDeleted() + step.keysDeleted(),
+                    step.passCompleted());
+        } while (!step.passCompleted());
+
+        assertThat(total.entriesRemoved()).isEqualTo(2);
+        assertThat(total.keysDeleted()).isEqualTo(1);
+        assertThat(service.getUserActiveSessions(userId)).containsExactly("live");
+        assertThat(service.getActiveSessionCount(otherUser)).isZero();
+    }
+}
@@ -0,0 +1,39 @@
+package project.ii.flowx.module.message.dto.message;
+
+import org.junit.jupiter.api.Test;
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTripsRankAndId() {
+        SearchCursor cursor = new SearchCursor(0.0607927f, UUID.randomUUID());
+
+        assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankStartsAboveEveryResult() {
+        assertThat(SearchCursor.decode(null)).isEqualTo(SearchCursor.FIRST);
+        assertThat(SearchCursor.decode("")).isEqualTo(SearchCursor.FIRST);
+    }
+
+    @Test
+    void rejectsMalformedTokensAsBadRequest() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("0.5".getBytes(StandardCharsets.UTF_8));
+        String badRank = Base64.getUrlEncoder().encodeToString(("high|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        for (String token : new String[]{"%%%", noSeparator, badRank}) {
+            assertThatThrownBy(() -> SearchCursor.decode(token))
+                    .isInstanceOfSatisfying(FlowXException.class,
+                            e -> assertThat(e.getFlowXError()).isEqualTo(FlowXError.BAD_REQUEST));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package project.ii.flowx.module.message.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.ii.flowx.applications.enums.ConversationActivity;
+import project.ii.flowx.module.message.repository.MemberRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConversationActivityBroadcasterTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final MemberRepository memberRepository = mock(MemberRepository.class);
+    private final ConversationActivityBroadcaster broadcaster =
+            new ConversationActivityBroadcaster(messagingTemplate, memberRepository);
+    private final UUID conversationId = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // A long refill interval keeps the token bucket from refilling during a test
+        ReflectionTestUtils.setField(broadcaster, "minIntervalMillis", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "burst", 3);
+        ReflectionTestUtils.setField(broadcaster, "staleMillis", 60_000L);
+        when(memberRepository.existsByConversationIdAndUserId(eq(conversationId), any())).thenReturn(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ConversationActivityBroadcaster.Activity> flushed() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(ConversationActivityBroadcaster.DESTINATION_PREFIX + conversationId),
+                payload.capture());
+        return (List<ConversationActivityBroadcaster.Activity>) payload.getValue();
+    }
+
+    @Test
+    void rateLimitsEachUserToTheBurst() {
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.TYPING)).isTrue();
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.STOPPED_TYPING)).isTrue();
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.TYPING)).isTrue();
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.STOPPED_TYPING)).isFalse();
+
+        assertThat(broadcaster.submit(conversationId, bob, ConversationActivity.TYPING)).isTrue();
+    }
+
+    @Test
+    void skippedRepeatsStillSpendTokens() {
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.TYPING)).isTrue();
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.TYPING)).isFalse();
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.TYPING)).isFalse();
+
+        assertThat(broadcaster.submit(conversationId, alice, ConversationActivity.STOPPED_TYPING)).isFalse();
+    }
+
+    @Test
+    void nonMembersAreRejectedAndTheLookupIsCached() {
+        UUID otherConversation = UUID.randomUUID();
+        when(memberRepository.existsByConversationIdAndUserId(otherConversation, alice)).thenReturn(false);
+
+        assertThat(broadcaster.submit(otherConversation, alice, ConversationActivity.TYPING)).isFalse();
+        assertThat(broadcaster.submit(otherConversation, alice, ConversationActivity.VIEWING)).isFalse();
+
+        verify(memberRepository, times(1)).existsByConversationIdAndUserId(otherConversation, alice);
+        broadcaster.flush();
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void flushSendsOneFrameWithTheLatestStatePerMember() {
+        broadcaster.submit(conversationId, alice, ConversationActivity.TYPING);
+        broadcaster.submit(conversationId, alice, ConversationActivity.STOPPED_TYPING);
+        broadcaster.submit(conversationId, bob, ConversationActivity.VIEWING);
+
+        broadcaster.flush();
+
+        assertThat(flushed()).containsExactlyInAnyOrder(
+                new ConversationActivityBroadcaster.Activity(alice, ConversationActivity.STOPPED_TYPING),
+                new ConversationActivityBroadcaster.Activity(bob, ConversationActivity.VIEWING));
+
+        broadcaster.flush();
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void staleStatesAreDropped() throws InterruptedException {
+        ReflectionTestUtils.setField(broadcaster, "staleMillis", 1L);
+        broadcaster.submit(conversationId, alice, ConversationActivity.TYPING);
+        Thread.sleep(10);
+
+        broadcaster.flush();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
@@ -0,0 +1,136 @@
+package project.ii.flowx.module.message.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.script.RedisScript;
+import project.ii.flowx.applications.helper.RedisScripts;
+import project.ii.flowx.support.RedisContainerSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationTailScriptsTest extends RedisContainerSupport {
+
+    private static final RedisScript<Long> POPULATE = RedisScripts.load("redis/conversation_tail_populate.lua");
+    private static final RedisScript<Long> APPEND = RedisScripts.load("redis/conversation_tail_append.lua");
+    private static final RedisScript<Long> REPLACE = RedisScripts.load("redis/conversation_tail_replace.lua");
+
+    private static final List<String> KEYS = List.of("conversation_tail:c", "conversation_tail_version:c");
+    private static final String TTL = "60000";
+
+    private static String message(String id, String createdAt) {
+        return "{\"id\":\"" + id + "\",\"createdAt\":\"" + createdAt + "\",\"content\":\"" + id + "\"}";
+    }
+
+    private static String messageWithoutTimestamp(String id) {
+        return "{\"id\":\"" + id + "\",\"createdAt\":null}";
+    }
+
+    private long populate(String version, String... messages) {
+        List<String> args = new ArrayList<>(List.of(version, TTL));
+        args.addAll(List.of(messages));
+        return redis.execute(POPULATE, KEYS, args.toArray());
+    }
+
+    private long append(String message, int maxEntries) {
+        return redis.execute(APPEND, KEYS, message, String.valueOf(maxEntries), TTL);
+    }
+
+    private List<String> tail() {
+        return redis.opsForList().range(KEYS.get(0), 0, -1);
+    }
+
+    @Test
+    void populateStoresOnlyWhenTheVersionIsUnchanged() {
+        assertThat(populate("0", message("a", "2024-01-01T10:00"))).isEqualTo(1);
+        assertThat(tail()).containsExactly(message("a", "2024-01-01T10:00"));
+
+        redis.delete(KEYS.get(0));
+        append(message("b", "2024-01-01T10:01"), 10);
+        assertThat(populate("0", message("a", "2024-01-01T10:00"))).isZero();
+        assertThat(redis.hasKey(KEYS.get(0))).isFalse();
+    }
+
+    @Test
+    void populateDoesNotOverwriteAnExistingTail() {
+        populate("0", message("a", "2024-01-01T10:00"));
+
+        assertThat(populate("0", message("x", "2024-01-01T09:00"))).isZero();
+        assertThat(tail()).containsExactly(message("a", "2024-01-01T10:00"));
+    }
+
+    @Test
+    void appendIsANoOpWithoutACachedTailButStillBumpsTheVersion() {
+        assertThat(append(message("a", "2024-01-01T10:00"), 10)).isZero();
+
+        assertThat(redis.hasKey(KEYS.get(0))).isFalse();
+        assertThat(redis.opsForValue().get(KEYS.get(1))).isEqualTo("1");
+    }
+
+    @Test
+    void appendKeepsTheNewestEntries() {
+        populate("0", message("a", "2024-01-01T10:00"), message("b", "2024-01-01T10:01"));
+
+        assertThat(append(message("c", "2024-01-01T10:02"), 2)).isEqualTo(2);
+
+        assertThat(tail()).containsExactly(message("b", "2024-01-01T10:01"), message("c", "2024-01-01T10:02"));
+    }
+
+    @Test
+    void appendBreaksTimestampTiesById() {
+        populate("0", message("b", "2024-01-01T10:00"));
+
+        assertThat(append(message("c", "2024-01-01T10:00"), 10)).isEqualTo(2);
+        assertThat(append(message("a", "2024-01-01T10:00"), 10)).isZero();
+        assertThat(redis.hasKey(KEYS.get(0))).isFalse();
+    }
+
+    @Test
+    void appendOutOfOrderDropsTheTail() {
+        populate("0", message("a", "2024-01-01T10:00"), message("c", "2024-01-01T10:02"));
+
+        assertThat(append(message("b", "2024-01-01T10:01"), 10)).isZero();
+
+        assertThat(redis.hasKey(KEYS.get(0))).isFalse();
+    }
+
+    @Test
+    void appendWithoutTimestampDropsTheTail() {
+        populate("0", message("a", "2024-01-01T10:00"));
+
+        assertThat(append(messageWithoutTimestamp("b"), 10)).isZero();
+
+        assertThat(redis.hasKey(KEYS.get(0))).isFalse();
+    }
+
+    @Test
+    void replaceSwapsTheMatchingEntry() {
+        populate("0", message("a", "2024-01-01T10:00"), message("b", "2024-01-01T10:01"));
+        String edited = "{\"id\":\"a\",\"createdAt\":\"2024-01-01T10:00\",\"content\":\"edited\"}";
+
+        assertThat(redis.execute(REPLACE, KEYS, "a", edited, "10", TTL)).isEqualTo(1);
+
+        assertThat(tail()).containsExactly(edited, message("b", "2024-01-01T10:01"));
+        assertThat(redis.execute(REPLACE, KEYS, "missing", edited, "10", TTL)).isZero();
+    }
+
+    @Test
+    void removeFromAPartialTailKeepsTheRest() {
+        populate("0", message("a", "2024-01-01T10:00"), message("b", "2024-01-01T10:01"));
+
+        assertThat(redis.execute(REPLACE, KEYS, "a", "", "10", TTL)).isEqualTo(1);
+
+        assertThat(tail()).containsExactly(message("b", "2024-01-01T10:01"));
+    }
+
+    @Test
+    void removeFromAFullTailDropsIt() {
+        populate("0", message("a", "2024-01-01T10:00"), message("b", "2024-01-01T10:01"));
+
+        assertThat(redis.execute(REPLACE, KEYS, "b", "", "2", TTL)).isEqualTo(1);
+
+        assertThat(redis.hasKey(KEYS.get(0))).isFalse();
+        assertThat(populate("0", message("a", "2024-01-01T10:00"))).isZero();
+    }
+}
@@ -0,0 +1,179 @@
+package project.ii.flowx.module.message.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import project.ii.flowx.applications.enums.MessageStatus;
+import project.ii.flowx.applications.events.MessageEvent;
+import project.ii.flowx.dto.CursorPageResponse;
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+import project.ii.flowx.module.message.dto.message.MessageCreateRequest;
+import project.ii.flowx.module.message.dto.message.MessageResponse;
+import project.ii.flowx.module.message.dto.message.MessageSearchResponse;
+import project.ii.flowx.module.message.dto.message.SearchCursor;
+import project.ii.flowx.module.message.entity.Conversation;
+import project.ii.flowx.module.message.entity.Message;
+import project.ii.flowx.module.message.mapper.MessageMapper;
+import project.ii.flowx.module.message.repository.ConversationRepository;
+import project.ii.flowx.module.message.repository.MessageRepository;
+import project.ii.flowx.security.UserPrincipal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MessageServiceTest {
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final MessageMapper messageMapper = mock(MessageMapper.class);
+    private final MessageTailCache messageTailCache = mock(MessageTailCache.class);
+    private final UnreadCounterService unreadCounterService = mock(UnreadCounterService.class);
+    private final ConversationService conversationService = mock(ConversationService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final MessageService service = new MessageService(messageRepository, conversationRepository, messageMapper,
+            messageTailCache, mock(MemberService.class), unreadCounterService, conversationService, eventPublisher);
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID conversationId = UUID.randomUUID();
+
+    @BeforeEach
+    void signIn() {
+        UserPrincipal principal = new UserPrincipal(userId, "user@flowx.test", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sendingStoresTheMessageWithoutLoadingTheConversation() {
+        MessageCreateRequest request = new MessageCreateRequest();
+        request.setConversationId(conversationId);
+        request.setContent("hello");
+        Conversation conversation = new Conversation();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        MessageResponse response = new MessageResponse(UUID.randomUUID(), conversationId, userId, "hello",
+                createdAt, "SENT");
+
+        when(messageMapper.toMessage(request)).thenReturn(Message.builder().content("hello").build());
+        when(conversationRepository.getReferenceById(conversationId)).thenReturn(conversation);
+        when(messageRepository.saveAndFlush(any(Message.class))).thenAnswer(invocation -> {
+            Message saved = invocation.getArgument(0);
+            saved.setId(response.getId());
+            saved.setCreatedAt(createdAt);
+            return saved;
+        });
+        when(messageMapper.toMessageResponse(any(Message.class))).thenReturn(response);
+
+        assertThat(service.createMessage(request)).isSameAs(response);
+
+        ArgumentCaptor<Message> saved = ArgumentCaptor.forClass(Message.class);
+        verify(messageRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getSenderId()).isEqualTo(userId);
+        assertThat(saved.getValue().getConversation()).isSameAs(conversation);
+        assertThat(saved.getValue().getStatus()).isEqualTo(MessageStatus.SENT);
+        verify(conversationRepository, never()).findById(any());
+
+        InOrder order = inOrder(conversationService, unreadCounterService, messageTailCache, eventPublisher);
+        order.verify(conversationService).recordLastMessage(conversationId, response.getId(), userId, "hello", createdAt);
+        order.verify(unreadCounterService).messageCreated(conversationId, userId);
+        order.verify(messageTailCache).append(response);
+        ArgumentCaptor<MessageEvent.MessageCreatedEvent> event = ArgumentCaptor.forClass(MessageEvent.MessageCreatedEvent.class);
+        order.verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getMessage()).isSameAs(response);
+    }
+
+    private static MessageRepository.SearchHit hit(float rank, String snippet) {
+        UUID id = UUID.randomUUID();
+        return new MessageRepository.SearchHit() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getConversationId() {
+                return null;
+            }
+
+            @Override
+            public UUID getSenderId() {
+                return null;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return null;
+            }
+
+            @Override
+            public float getRank() {
+                return rank;
+            }
+
+            @Override
+            public String getSnippet() {
+                return snippet;
+            }
+        };
+    }
+
+    @Test
+    void searchEscapesContentAndMarksMatches() {
+        when(messageRepository.searchForMember(userId, "script", Float.MAX_VALUE, SearchCursor.FIRST.id(), 21))
+                .thenReturn(List.of(hit(0.5f, "<b>\u0002script\u0003</b> & more")));
+
+        CursorPageResponse<MessageSearchResponse> page = service.searchMessages(" script ", null, null, 20);
+
+        assertThat(page.getContent()).extracting(MessageSearchResponse::getSnippet)
+                .containsExactly("&lt;b&gt;<mark>script</mark>&lt;/b&gt; &amp; more");
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchPagesByRankAndId() {
+        MessageRepository.SearchHit first = hit(0.9f, "a");
+        MessageRepository.SearchHit second = hit(0.7f, "b");
+        when(messageRepository.searchForMemberInConversation(userId, conversationId, "a",
+                Float.MAX_VALUE, SearchCursor.FIRST.id(), 2))
+                .thenReturn(List.of(first, second));
+
+        CursorPageResponse<MessageSearchResponse> page = service.searchMessages("a", conversationId, null, 1);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(SearchCursor.decode(page.getNextCursor())).isEqualTo(new SearchCursor(0.9f, first.getId()));
+    }
+
+    @Test
+    void searchRejectsBlankAndOverlongQueries() {
+        assertThatThrownBy(() -> service.searchMessages(" ", null, null, 20))
+                .isInstanceOfSatisfying(FlowXException.class,
+                        e -> assertThat(e.getFlowXError()).isEqualTo(FlowXError.BAD_REQUEST));
+        assertThatThrownBy(() -> service.searchMessages("x".repeat(201), null, null, 20))
+                .isInstanceOfSatisfying(FlowXException.class,
+                        e -> assertThat(e.getFlowXError()).isEqualTo(FlowXError.BAD_REQUEST));
+        verifyNoInteractions(messageRepository);
+    }
+}
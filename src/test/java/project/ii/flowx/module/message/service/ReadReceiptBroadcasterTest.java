@@ -0,0 +1,42 @@
+package project.ii.flowx.module.message.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ReadReceiptBroadcasterTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final ReadReceiptBroadcaster broadcaster = new ReadReceiptBroadcaster(messagingTemplate);
+
+    @Test
+    void sendsTheLatestWatermarkPerMemberOncePerConversation() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID user = UUID.randomUUID();
+        LocalDateTime earlier = LocalDateTime.of(2024, 5, 1, 12, 0);
+        LocalDateTime later = earlier.plusMinutes(1);
+
+        broadcaster.submit(first, user, later);
+        // A receipt delivered out of order never moves the watermark back
+        broadcaster.submit(first, user, earlier);
+        broadcaster.submit(second, user, earlier);
+        broadcaster.flush();
+        broadcaster.flush();
+
+        verify(messagingTemplate).convertAndSend("/topic/conversation/" + first + "/read",
+                (Object) List.of(new ReadReceiptBroadcaster.ReadReceipt(user, later)));
+        verify(messagingTemplate).convertAndSend("/topic/conversation/" + second + "/read",
+                (Object) List.of(new ReadReceiptBroadcaster.ReadReceipt(user, earlier)));
+        verify(messagingTemplate, times(2)).convertAndSend(anyString(), any(Object.class));
+    }
+}
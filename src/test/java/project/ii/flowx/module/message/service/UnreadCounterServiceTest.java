@@ -0,0 +1,140 @@
+package project.ii.flowx.module.message.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.ii.flowx.module.message.repository.MemberRepository;
+import project.ii.flowx.module.message.repository.MessageRepository;
+import project.ii.flowx.support.RedisContainerSupport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCounterServiceTest extends RedisContainerSupport {
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final MemberRepository memberRepository = mock(MemberRepository.class);
+    private final UUID conversationId = UUID.randomUUID();
+    private final UUID reader = UUID.randomUUID();
+    private final UUID sender = UUID.randomUUID();
+    private UnreadCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UnreadCounterService(messageRepository, memberRepository, redis);
+        ReflectionTestUtils.setField(service, "ttlHours", 1L);
+        when(memberRepository.findUserIdsByConversationId(conversationId)).thenReturn(List.of(reader, sender));
+        unreadInDatabase(3);
+    }
+
+    private void unreadInDatabase(long unread) {
+        when(messageRepository.countUnreadByUser(reader)).thenReturn(List.of(count(unread)));
+    }
+
+    private MessageRepository.UnreadCount count(long unread) {
+        return new MessageRepository.UnreadCount() {
+            @Override
+            public UUID getConversationId() {
+                return conversationId;
+            }
+
+            @Override
+            public long getUnread() {
+                return unread;
+            }
+        };
+    }
+
+    private Map<Object, Object> hash() {
+        return redis.opsForHash().entries("unread:" + reader);
+    }
+
+    @Test
+    void firstReadMaterializesTheHash() {
+        assertThat(service.getUnreadCounts(reader)).containsExactly(Map.entry(conversationId, 3L));
+        assertThat(service.getUnreadCounts(reader)).containsExactly(Map.entry(conversationId, 3L));
+
+        verify(messageRepository, times(1)).countUnreadByUser(reader);
+        assertThat(hash()).containsExactly(Map.entry(conversationId.toString(), "3"));
+    }
+
+    @Test
+    void newMessagesIncrementOtherMembersOnly() {
+        service.getUnreadCounts(reader);
+
+        service.messageCreated(conversationId, sender);
+
+        assertThat(hash()).containsExactly(Map.entry(conversationId.toString(), "4"));
+        assertThat(redis.hasKey("unread:" + sender)).isFalse();
+    }
+
+    @Test
+    void aCountRacingAnIncrementIsNotStored() {
+        when(messageRepository.countUnreadByUser(reader)).thenAnswer(invocation -> {
+            service.messageCreated(conversationId, sender);
+            return List.of(count(3));
+        });
+
+        service.getUnreadCounts(reader);
+
+        assertThat(redis.hasKey("unread:" + reader)).isFalse();
+    }
+
+    @Test
+    void advancingTheWatermarkSetsTheCounter() {
+        service.getUnreadCounts(reader);
+        when(messageRepository.countUnreadForMember(conversationId, reader)).thenReturn(0L);
+
+        service.watermarkAdvanced(conversationId, reader);
+
+        assertThat(hash()).containsExactly(Map.entry(conversationId.toString(), "0"));
+    }
+
+    @Test
+    void aWatermarkCountRacingAnIncrementDropsTheHash() {
+        service.getUnreadCounts(reader);
+        when(messageRepository.countUnreadForMember(conversationId, reader)).thenAnswer(invocation -> {
+            service.messageCreated(conversationId, sender);
+            return 0L;
+        });
+
+        service.watermarkAdvanced(conversationId, reader);
+
+        assertThat(redis.hasKey("unread:" + reader)).isFalse();
+    }
+
+    @Test
+    void deletingAMessageDropsOtherMembersCounters() {
+        service.getUnreadCounts(reader);
+        String version = redis.opsForValue().get("unread_version:" + reader);
+
+        service.messageDeleted(conversationId, sender);
+
+        assertThat(redis.hasKey("unread:" + reader)).isFalse();
+        assertThat(redis.opsForValue().get("unread_version:" + reader)).isNotEqualTo(version);
+        unreadInDatabase(2);
+        assertThat(service.getUnreadCounts(reader)).containsExactly(Map.entry(conversationId, 2L));
+    }
+
+    @Test
+    void reconcileRepairsDriftedCounters() {
+        service.getUnreadCounts(reader);
+        redis.opsForHash().put("unread:" + reader, conversationId.toString(), "42");
+
+        UnreadCounterService.ReconcileResult total = new UnreadCounterService.ReconcileResult(0, false);
+        while (!total.passCompleted()) {
+            UnreadCounterService.ReconcileResult step = service.reconcile(100);
+            total = new UnreadCounterService.ReconcileResult(total.usersRepaired() + step.usersRepaired(), step.passCompleted());
+        }
+
+        assertThat(total.usersRepaired()).isEqualTo(1);
+        assertThat(hash()).containsExactly(Map.entry(conversationId.toString(), "3"));
+    }
+}
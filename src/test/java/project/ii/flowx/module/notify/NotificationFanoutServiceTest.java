@@ -0,0 +1,101 @@
+package project.ii.flowx.module.notify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.ii.flowx.module.notify.dto.NotificationCreateRequest;
+import project.ii.flowx.module.notify.dto.NotificationResponse;
+import project.ii.flowx.module.notify.dto.NotificationTarget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class NotificationFanoutServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final NotificationUnreadCountService unreadCountService = mock(NotificationUnreadCountService.class);
+    private final NotificationFanoutService service = new NotificationFanoutService(jdbcTemplate,
+            mock(NotificationMapper.class, CALLS_REAL_METHODS), messagingTemplate, unreadCountService);
+
+    private final NotificationCreateRequest notification = NotificationCreateRequest.builder()
+            .title("Task assigned")
+            .content("You were assigned a task")
+            .target(NotificationTarget.forTask(UUID.randomUUID(), "Docs", null))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    private static List<UUID> users(int count) {
+        List<UUID> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) users.add(UUID.randomUUID());
+        return users;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesTheMessageOnceAndDeliveriesInBatches() {
+        List<UUID> users = users(5);
+        List<UUID> recipients = new ArrayList<>(users);
+        recipients.add(users.getFirst());
+
+        assertThat(service.fanout(notification, recipients)).isEqualTo(5);
+
+        ArgumentCaptor<Object> messageId = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(anyString(), messageId.capture(), eq("Task assigned"), eq("You were assigned a task"),
+                anyString(), any());
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+
+        List<Object[]> rows = batches.getAllValues().stream().flatMap(List::stream).toList();
+        assertThat(rows).extracting(row -> row[1]).containsExactlyElementsOf(users);
+        assertThat(rows).allSatisfy(row -> assertThat(row[2]).isEqualTo(messageId.getValue()));
+        verify(unreadCountService).evict(users);
+
+        // Each frame carries the id of the delivery row written for that user
+        ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+        for (int i = 0; i < users.size(); i++) {
+            verify(messagingTemplate).convertAndSend(eq("/topic/notifications/" + users.get(i)), frames.capture());
+        }
+        assertThat(frames.getAllValues()).extracting(frame -> ((NotificationResponse) frame).getId())
+                .containsExactlyElementsOf(rows.stream().map(row -> (UUID) row[0]).toList());
+    }
+
+    @Test
+    void noRecipientsWritesNothing() {
+        assertThat(service.fanout(notification, List.of())).isZero();
+
+        verifyNoInteractions(jdbcTemplate, messagingTemplate, unreadCountService);
+    }
+
+    @Test
+    void aFailedFrameDoesNotStopTheOthers() {
+        List<UUID> users = users(3);
+        doThrow(new IllegalStateException("broker down"))
+                .when(messagingTemplate).convertAndSend(eq("/topic/notifications/" + users.getFirst()), any(Object.class));
+
+        service.fanout(notification, users);
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/" + users.get(1)), any(Object.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/" + users.get(2)), any(Object.class));
+    }
+}
@@ -0,0 +1,91 @@
+package project.ii.flowx.module.notify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import project.ii.flowx.dto.Cursor;
+import project.ii.flowx.module.notify.dto.NotificationFeedResponse;
+import project.ii.flowx.security.UserPrincipal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final NotificationMapper notificationMapper = mock(NotificationMapper.class);
+    private final NotificationUnreadCountService unreadCountService = mock(NotificationUnreadCountService.class);
+    private final NotificationService service = new NotificationService(notificationRepository, notificationMapper,
+            mock(NotificationFanoutService.class), unreadCountService);
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void signIn() {
+        UserPrincipal principal = new UserPrincipal(userId, "user@flowx.test", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Notification notification(LocalDateTime createdAt) {
+        return Notification.builder().id(UUID.randomUUID()).createdAt(createdAt).isRead(false).build();
+    }
+
+    @Test
+    void firstPageEndsWithACursorAtItsLastRow() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Notification newest = notification(now);
+        Notification older = notification(now.minusMinutes(1));
+        Notification extra = notification(now.minusMinutes(2));
+        when(notificationRepository.findLatestPage(userId, Limit.of(3))).thenReturn(List.of(newest, older, extra));
+        when(unreadCountService.getUnreadCount(userId)).thenReturn(7L);
+
+        NotificationFeedResponse page = service.getMyNotifications(null, 2);
+
+        verify(notificationMapper).toNotificationResponseList(List.of(newest, older));
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(Cursor.decode(page.getNextCursor())).isEqualTo(new Cursor(older.getCreatedAt(), older.getId()));
+        assertThat(page.getUnreadCount()).isEqualTo(7);
+    }
+
+    @Test
+    void laterPagesStartAfterTheCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2024, 5, 1, 12, 0), UUID.randomUUID());
+        when(notificationRepository.findPageBefore(userId, cursor.timestamp(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(notification(cursor.timestamp().minusMinutes(1))));
+
+        NotificationFeedResponse page = service.getMyNotifications(cursor.encode(), 2);
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(notificationRepository, never()).findLatestPage(userId, Limit.of(3));
+    }
+
+    @Test
+    void readStateChangesEvictTheCountOnlyWhenARowChanged() {
+        UUID changed = UUID.randomUUID();
+        UUID unchanged = UUID.randomUUID();
+        when(notificationRepository.markAsReadById(changed, userId)).thenReturn(1);
+        when(notificationRepository.markAsReadById(unchanged, userId)).thenReturn(0);
+
+        service.markAsRead(unchanged);
+        verify(unreadCountService, never()).evict(userId);
+
+        service.markAsRead(changed);
+        verify(unreadCountService).evict(userId);
+    }
+}
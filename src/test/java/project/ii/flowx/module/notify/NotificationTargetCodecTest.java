@@ -0,0 +1,85 @@
+package project.ii.flowx.module.notify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import project.ii.flowx.module.notify.dto.NotificationTarget;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationTargetCodecTest {
+
+    private static NotificationTarget target() {
+        NotificationTarget target = NotificationTarget.forTask(UUID.randomUUID(), "Docs", "Write the docs");
+        target.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+        return target;
+    }
+
+    @Test
+    void roundTripsEveryField() {
+        NotificationTarget target = target();
+
+        assertThat(NotificationTargetCodec.fromJson(NotificationTargetCodec.toJson(target))).isEqualTo(target);
+    }
+
+    @Test
+    void writesTheSameJsonAsAPerCallMapper() throws Exception {
+        NotificationTarget target = target();
+        String legacy = new ObjectMapper().findAndRegisterModules().writeValueAsString(target);
+
+        assertThat(NotificationTargetCodec.toJson(target)).isEqualTo(legacy);
+        assertThat(NotificationTargetCodec.fromJson(legacy)).isEqualTo(target);
+    }
+
+    @Test
+    void digestTargetsKeepTheirMetadata() {
+        NotificationTarget digest = NotificationTarget.forDigest(12, LocalDate.of(2024, 5, 1));
+
+        NotificationTarget decoded = NotificationTargetCodec.fromJson(NotificationTargetCodec.toJson(digest));
+
+        assertThat(decoded.getType()).isEqualTo(NotificationTarget.DIGEST_TYPE);
+        assertThat(decoded.getMetadata()).isEqualTo("{\"count\": 12}");
+    }
+
+    @Test
+    void nullAndBlankMeanNoTarget() {
+        assertThat(NotificationTargetCodec.toJson(null)).isNull();
+        assertThat(NotificationTargetCodec.fromJson(null)).isNull();
+        assertThat(NotificationTargetCodec.fromJson(" ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertThatThrownBy(() -> NotificationTargetCodec.fromJson("{not json"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Error deserializing JSON to NotificationTarget");
+    }
+
+    @Test
+    void isSafeToShareBetweenThreads() throws Exception {
+        List<Callable<Boolean>> roundTrips = IntStream.range(0, 64)
+                .<Callable<Boolean>>mapToObj(i -> () -> {
+                    NotificationTarget target = target();
+                    return target.equals(NotificationTargetCodec.fromJson(NotificationTargetCodec.toJson(target)));
+                })
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Boolean> result : executor.invokeAll(roundTrips)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
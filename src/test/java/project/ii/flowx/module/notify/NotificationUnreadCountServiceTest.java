@@ -0,0 +1,72 @@
+package project.ii.flowx.module.notify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.ii.flowx.support.RedisContainerSupport;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationUnreadCountServiceTest extends RedisContainerSupport {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UUID userId = UUID.randomUUID();
+    private NotificationUnreadCountService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationUnreadCountService(notificationRepository, redis);
+        ReflectionTestUtils.setField(service, "ttlMinutes", 1L);
+        when(notificationRepository.countByUserIdAndIsReadFalse(userId)).thenReturn(4L);
+    }
+
+    @Test
+    void countsOnceAndServesFromRedis() {
+        assertThat(service.getUnreadCount(userId)).isEqualTo(4);
+        assertThat(service.getUnreadCount(userId)).isEqualTo(4);
+
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(userId);
+    }
+
+    @Test
+    void evictionDropsTheCachedCount() {
+        service.getUnreadCount(userId);
+        when(notificationRepository.countByUserIdAndIsReadFalse(userId)).thenReturn(1L);
+
+        service.evict(userId);
+
+        assertThat(service.getUnreadCount(userId)).isEqualTo(1);
+    }
+
+    @Test
+    void aCountRacingAnEvictionIsNotStored() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(userId)).thenAnswer(invocation -> {
+            service.evict(userId);
+            return 4L;
+        });
+
+        assertThat(service.getUnreadCount(userId)).isEqualTo(4);
+
+        assertThat(redis.hasKey("notification_unread:" + userId)).isFalse();
+    }
+
+    @Test
+    void evictsEveryRecipientInOneCall() {
+        UUID other = UUID.randomUUID();
+        when(notificationRepository.countByUserIdAndIsReadFalse(other)).thenReturn(2L);
+        service.getUnreadCount(userId);
+        service.getUnreadCount(other);
+
+        service.evict(List.of(userId, other));
+
+        assertThat(redis.hasKey("notification_unread:" + userId)).isFalse();
+        assertThat(redis.hasKey("notification_unread:" + other)).isFalse();
+    }
+}
@@ -0,0 +1,116 @@
+package project.ii.flowx.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import project.ii.flowx.exceptionhandler.FlowXError;
+import project.ii.flowx.exceptionhandler.FlowXException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) encoder.shutdown();
+    }
+
+    /** Encoder whose hashing blocks until released, so the pool can be filled deterministically */
+    private PasswordEncoder blockingDelegate() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+
+    @Test
+    void delegatesToTheWrappedEncoder() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 1, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.get("flowx.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWith429OnceThreadsAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 2, 1, 7, meterRegistry);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("c"));
+        while (meterRegistry.get("flowx.password.hash.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> encoder.encode("d"))
+                .isInstanceOfSatisfying(FlowXException.class, e -> {
+                    assertThat(e.getFlowXError()).isEqualTo(FlowXError.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(7L);
+                });
+        assertThat(meterRegistry.get("flowx.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:c");
+    }
+
+    @Test
+    void rethrowsDelegateFailures() {
+        PasswordEncoder failing = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("bad password");
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        encoder = new BoundedPasswordEncoder(failing, 1, 1, 1, meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("x"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad password");
+    }
+
+    @Test
+    void tuningNeverGoesBelowTheMinimumStrength() {
+        BCryptPasswordEncoder untuned = BoundedPasswordEncoder.tunedBCrypt(4, 0);
+        BCryptPasswordEncoder tuned = BoundedPasswordEncoder.tunedBCrypt(4, 1);
+
+        assertThat(untuned.encode("x")).startsWith("$2a$04$");
+        assertThat(tuned.encode("x")).startsWith("$2a$04$");
+    }
+}
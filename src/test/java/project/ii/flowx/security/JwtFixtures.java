@@ -0,0 +1,45 @@
+package project.ii.flowx.security;
+
+import com.nimbusds.jose.JOSEException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Minter and decoder wired with the same test secret, the way the application context wires them
+ */
+final class JwtFixtures {
+    static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+    static final String ISSUER = "FlowX";
+
+    private JwtFixtures() { }
+
+    static JwtTokenMinter minter() {
+        JwtTokenMinter minter = new JwtTokenMinter();
+        ReflectionTestUtils.setField(minter, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(minter, "jwtIssuer", ISSUER);
+        try {
+            minter.init();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return minter;
+    }
+
+    static JwtDecoderImpl decoder(TokenRevocationService tokenRevocationService) {
+        JwtDecoderImpl decoder = new JwtDecoderImpl();
+        ReflectionTestUtils.setField(decoder, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(decoder, "jwtIssuer", ISSUER);
+        ReflectionTestUtils.setField(decoder, "tokenRevocationService", tokenRevocationService);
+        decoder.init();
+        return decoder;
+    }
+
+    static UserPrincipal principal(String... authorities) {
+        List<SimpleGrantedAuthority> granted = Arrays.stream(authorities).map(SimpleGrantedAuthority::new).toList();
+        return new UserPrincipal(UUID.randomUUID(), "user@flowx.test", null, granted);
+    }
+}
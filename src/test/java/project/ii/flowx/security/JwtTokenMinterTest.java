@@ -0,0 +1,52 @@
+package project.ii.flowx.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class JwtTokenMinterTest {
+    private final JwtTokenMinter minter = JwtFixtures.minter();
+    private final JwtDecoderImpl decoder = JwtFixtures.decoder(mock(TokenRevocationService.class));
+
+    @Test
+    void mintedClaimsMatchWhatTheDecoderReads() {
+        UserPrincipal user = JwtFixtures.principal("ROLE_USER", "ROLE_HR");
+
+        JwtTokenMinter.TokenPair pair = minter.mintPair(user, 60_000, 3_600_000);
+
+        for (JwtTokenMinter.MintedToken minted : new JwtTokenMinter.MintedToken[] {pair.accessToken(), pair.refreshToken()}) {
+            Jwt jwt = decoder.decode(minted.value());
+            assertThat(jwt.getId()).isEqualTo(minted.jti());
+            assertThat(jwt.getExpiresAt()).isEqualTo(minted.expiresAt());
+            assertThat(jwt.getSubject()).isEqualTo(user.getUsername());
+            assertThat(jwt.getClaimAsString("userId")).isEqualTo(user.getId().toString());
+            assertThat(jwt.getClaimAsString("scope")).isEqualTo("ROLE_USER ROLE_HR");
+        }
+    }
+
+    @Test
+    void pairHasDistinctIdsAndItsOwnLifetimes() {
+        Instant before = Instant.now();
+
+        JwtTokenMinter.TokenPair pair = minter.mintPair(JwtFixtures.principal("ROLE_USER"), 60_000, 3_600_000);
+
+        assertThat(pair.accessToken().jti()).isNotEqualTo(pair.refreshToken().jti());
+        // Expiry is truncated to whole seconds, as carried by the token
+        assertThat(pair.accessToken().expiresAt()).isBetween(before.plusSeconds(59), before.plusSeconds(61));
+        assertThat(pair.refreshToken().expiresAt()).isBetween(before.plusSeconds(3_599), before.plusSeconds(3_601));
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = minter.mintPair(JwtFixtures.principal("ROLE_USER"), 60_000, 120_000).accessToken().value();
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> decoder.decode(tampered)).isInstanceOf(JwtException.class);
+    }
+}
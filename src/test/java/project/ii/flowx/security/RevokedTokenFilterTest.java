@@ -0,0 +1,65 @@
+package project.ii.flowx.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenFilterTest {
+
+    @Test
+    void neverForgetsARevokedToken() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(10_000, 0.01);
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String jti = UUID.randomUUID().toString();
+            revoked.add(jti);
+            filter.put(jti);
+        }
+
+        assertThat(revoked).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put(UUID.randomUUID().toString());
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+
+        // Three times the target rate leaves room for randomness while still catching a broken hash
+        assertThat((double) falsePositives / probes).isLessThan(0.03);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(100, 0.01);
+
+        assertThat(filter.mightContain(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws InterruptedException {
+        RevokedTokenFilter filter = new RevokedTokenFilter(40_000, 0.01);
+        List<String> jtis = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) jtis.add(UUID.randomUUID().toString());
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<String> slice = jtis.subList(t * 10_000, (t + 1) * 10_000);
+            Thread writer = new Thread(() -> slice.forEach(filter::put));
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) writer.join();
+
+        assertThat(jtis).allMatch(filter::mightContain);
+    }
+}
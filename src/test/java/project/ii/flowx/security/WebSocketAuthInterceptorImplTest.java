@@ -0,0 +1,99 @@
+package project.ii.flowx.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSocketAuthInterceptorImplTest {
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private TokenRevocationService tokenRevocationService;
+    private JwtDecoderImpl decoder;
+    private WebSocketAuthInterceptorImpl interceptor;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        tokenRevocationService = mock(TokenRevocationService.class);
+        decoder = spy(JwtFixtures.decoder(tokenRevocationService));
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(decoder, tokenRevocationService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        cache.init();
+        interceptor = new WebSocketAuthInterceptorImpl(cache);
+    }
+
+    @Test
+    void connectPrincipalComesFromTheTokenClaims() {
+        UserPrincipal user = JwtFixtures.principal("ROLE_USER", "ROLE_MANAGER");
+        String token = JwtFixtures.minter().mintPair(user, 60_000, 120_000).accessToken().value();
+
+        Principal principal = connect("Bearer " + token);
+
+        assertThat(principal).isNotNull();
+        UserPrincipal connected = (UserPrincipal) ((Authentication) principal).getPrincipal();
+        assertThat(connected.getId()).isEqualTo(user.getId());
+        assertThat(connected.getUsername()).isEqualTo(user.getUsername());
+        assertThat(connected.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_MANAGER");
+    }
+
+    @Test
+    void reconnectWithTheSameTokenSkipsVerification() {
+        String token = JwtFixtures.minter().mintPair(JwtFixtures.principal("ROLE_USER"), 60_000, 120_000)
+                .accessToken().value();
+
+        assertThat(connect("Bearer " + token)).isNotNull();
+        assertThat(connect("Bearer " + token)).isNotNull();
+
+        verify(decoder, times(1)).decode(anyString());
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() {
+        String token = JwtFixtures.minter().mintPair(JwtFixtures.principal("ROLE_USER"), 60_000, 120_000)
+                .accessToken().value();
+        assertThat(connect("Bearer " + token)).isNotNull();
+
+        when(tokenRevocationService.isRevoked(anyString(), any())).thenReturn(true);
+
+        assertThat(connect("Bearer " + token)).isNull();
+    }
+
+    @Test
+    void invalidTokenLeavesTheSessionAnonymous() {
+        assertThat(connect("Bearer not-a-jwt")).isNull();
+        assertThat(connect(null)).isNull();
+    }
+
+    private Principal connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) accessor.addNativeHeader("Authorization", authorization);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        Message<?> result = interceptor.preSend(message, channel);
+        StompHeaderAccessor sent = MessageHeaderAccessor.getAccessor(result, StompHeaderAccessor.class);
+        return sent != null ? sent.getUser() : null;
+    }
+}